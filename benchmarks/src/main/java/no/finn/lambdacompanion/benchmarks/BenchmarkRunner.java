@@ -0,0 +1,40 @@
+package no.finn.lambdacompanion.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the selected benchmarks twice: once in throughput mode reported as ops/s, and once in sample mode reported
+ * as us/op with latency percentiles. Any regular JMH command line option (include regex, -p size=..., -prof gc, ...)
+ * is passed through.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(final String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        final CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+                || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        new Runner(new OptionsBuilder().parent(commandLine)
+                                       .mode(Mode.Throughput)
+                                       .timeUnit(TimeUnit.SECONDS)
+                                       .build()).run();
+        new Runner(new OptionsBuilder().parent(commandLine)
+                                       .mode(Mode.SampleTime)
+                                       .timeUnit(TimeUnit.MICROSECONDS)
+                                       .build()).run();
+    }
+
+}
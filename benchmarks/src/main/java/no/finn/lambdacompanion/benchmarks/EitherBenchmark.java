@@ -0,0 +1,73 @@
+package no.finn.lambdacompanion.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import no.finn.lambdacompanion.Either;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EitherBenchmark {
+
+    private Either<String, Integer> right = Either.right(42);
+
+    private Either<String, Integer> left = Either.left("invalid");
+
+    @Benchmark
+    public Integer rightProjectionMapOnRight() {
+        return right.right().map(i -> i + 1).right().orElse(0);
+    }
+
+    @Benchmark
+    public Integer rightProjectionMapOnLeft() {
+        return left.right().map(i -> i + 1).right().orElse(0);
+    }
+
+    @Benchmark
+    public Integer mapOnRight() {
+        return right.map(i -> i + 1).getOrElse(0);
+    }
+
+    @Benchmark
+    public Integer mapOnLeft() {
+        return left.map(i -> i + 1).getOrElse(0);
+    }
+
+    @Benchmark
+    public Integer flatMapOnRight() {
+        return right.flatMap(i -> Either.<String, Integer>right(i + 1)).getOrElse(0);
+    }
+
+    @Benchmark
+    public Integer orElseThrowOnRight() {
+        return right.orElseThrow(IllegalArgumentException::new);
+    }
+
+    @Benchmark
+    public String leftProjectionMapOnLeft() {
+        return left.left().map(String::trim).left().orElse("");
+    }
+
+    @Benchmark
+    public Integer rightProjectionOrElseThrow() {
+        return right.right().orElseThrow(IllegalArgumentException::new);
+    }
+
+    @Benchmark
+    public Integer fold() {
+        return right.fold(String::length, i -> i);
+    }
+
+}
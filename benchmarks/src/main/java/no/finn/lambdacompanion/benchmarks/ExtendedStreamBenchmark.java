@@ -0,0 +1,147 @@
+package no.finn.lambdacompanion.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+import no.finn.lambdacompanion.ExtendedStream;
+import no.finn.lambdacompanion.StreamableOptional;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ExtendedStreamBenchmark {
+
+    private static final BiFunction<Integer, Long, Long> SUM = (i, acc) -> acc + i;
+
+    private static final int CHUNK = 100;
+
+    @Param({"10", "1000", "100000", "10000000"})
+    private int size;
+
+    private List<Integer> list;
+
+    @Setup
+    public void setUp() {
+        list = Sizes.integers(size);
+    }
+
+    @Benchmark
+    public Long foldLeft() {
+        return ExtendedStream.of(list.stream()).foldLeft(SUM, 0L);
+    }
+
+    @Benchmark
+    public Long foldRight() {
+        return ExtendedStream.of(list.stream()).foldRight(SUM, 0L);
+    }
+
+    @Benchmark
+    public Long plainStreamReduce() {
+        return list.stream().reduce(0L, (acc, i) -> acc + i, Long::sum);
+    }
+
+    @Benchmark
+    public StreamableOptional<Integer> findLast() {
+        return ExtendedStream.of(list.stream()).findLast();
+    }
+
+    @Benchmark
+    public Optional<Integer> plainStreamFindLast() {
+        return list.stream().reduce((a, b) -> b);
+    }
+
+    @Benchmark
+    public StreamableOptional<Integer> findLastMapped() {
+        return ExtendedStream.of(list.parallelStream()).map(i -> i + 1).findLast();
+    }
+
+    @Benchmark
+    public StreamableOptional<Integer> findLastFiltered() {
+        return ExtendedStream.of(list.stream()).filter(i -> i % 2 == 0).findLast();
+    }
+
+    @Benchmark
+    public Optional<Integer> plainStreamFindLastFiltered() {
+        return list.stream().filter(i -> i % 2 == 0).reduce((a, b) -> b);
+    }
+
+    @Benchmark
+    public long chunkedSum() {
+        return ExtendedStream.of(list.stream()).chunked(CHUNK).mapToLong(List::size).sum();
+    }
+
+    @Benchmark
+    public long chunkedParallelSum() {
+        return ExtendedStream.of(list.parallelStream()).chunked(CHUNK).mapToLong(List::size).sum();
+    }
+
+    @Benchmark
+    public long plainListSlicingSum() {
+        long sum = 0;
+        for (int from = 0; from < list.size(); from += CHUNK) {
+            sum += list.subList(from, Math.min(from + CHUNK, list.size())).size();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long indexedParallelSum() {
+        return ExtendedStream.of(list.parallelStream()).indexed().mapToLong(p -> p.getLeft() * p.getRight()).sum();
+    }
+
+    @Benchmark
+    public long atomicCounterParallelSum() {
+        final AtomicLong index = new AtomicLong();
+        return list.parallelStream().mapToLong(i -> index.getAndIncrement() * i).sum();
+    }
+
+    @Benchmark
+    public long zipParallelSum() {
+        return ExtendedStream.of(list.parallelStream()).zip(list.parallelStream())
+                             .mapToLong(p -> (long) p.getLeft() * p.getRight())
+                             .sum();
+    }
+
+    @Benchmark
+    public long filteredCount() {
+        return ExtendedStream.of(list.stream()).filter(i -> i % 2 == 0).count();
+    }
+
+    @Benchmark
+    public long meteredFilteredCount() {
+        return ExtendedStream.of(list.stream()).metered("source").filter(i -> i % 2 == 0).metered("even").count();
+    }
+
+    @Benchmark
+    public long distinctCount() {
+        return ExtendedStream.of(list.stream()).distinct().count();
+    }
+
+    @Benchmark
+    public long distinctByLongCount() {
+        return ExtendedStream.of(list.stream()).distinctByLong(i -> i, list.size()).count();
+    }
+
+    @Benchmark
+    public long distinctApproxCount() {
+        return ExtendedStream.of(list.stream()).distinctApprox(i -> i, size, 0.01).count();
+    }
+
+}
@@ -0,0 +1,56 @@
+package no.finn.lambdacompanion.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import no.finn.lambdacompanion.FailureMonitor;
+import no.finn.lambdacompanion.Try;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class FailureMonitorBenchmark {
+
+    @Param({"false", "true"})
+    private boolean monitored;
+
+    private final Exception exception = new IllegalStateException("benchmark");
+
+    private FailureMonitor monitor;
+
+    @Setup
+    public void setUp() {
+        if (monitored) {
+            monitor = FailureMonitor.create(1000, 20).install();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (monitor != null) {
+            monitor.uninstall();
+        }
+    }
+
+    @Benchmark
+    public Try<Integer> failure() {
+        return Try.failure(exception);
+    }
+
+}
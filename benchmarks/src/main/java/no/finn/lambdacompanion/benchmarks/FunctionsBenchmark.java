@@ -0,0 +1,59 @@
+package no.finn.lambdacompanion.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import no.finn.lambdacompanion.Functions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class FunctionsBenchmark {
+
+    private static final BiFunction<Integer, Long, Long> SUM = (i, acc) -> acc + i;
+
+    @Param({"10", "1000", "100000", "10000000"})
+    private int size;
+
+    private List<Integer> list;
+
+    @Setup
+    public void setUp() {
+        list = Sizes.integers(size);
+    }
+
+    @Benchmark
+    public Long foldLeft() {
+        return Functions.foldLeft(SUM, 0L, list);
+    }
+
+    @Benchmark
+    public Long foldRight() {
+        return Functions.foldRight(SUM, 0L, list);
+    }
+
+    @Benchmark
+    public long forLoopBaseline() {
+        long acc = 0L;
+        for (final Integer i : list) {
+            acc += i;
+        }
+        return acc;
+    }
+
+}
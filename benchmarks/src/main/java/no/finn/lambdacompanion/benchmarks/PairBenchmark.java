@@ -0,0 +1,53 @@
+package no.finn.lambdacompanion.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import no.finn.lambdacompanion.Either;
+import no.finn.lambdacompanion.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class PairBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    private int size;
+
+    private List<Either<String, Integer>> eithers;
+
+    @Setup
+    public void setUp() {
+        eithers = Sizes.eithers(size);
+    }
+
+    @Benchmark
+    public Pair<List<String>, List<Integer>> partition() {
+        return Pair.of(eithers);
+    }
+
+    @Benchmark
+    public Pair<List<String>, List<Integer>> partitioningCollector() {
+        return eithers.stream().collect(Pair.partitioning());
+    }
+
+    @Benchmark
+    public Pair<List<String>, List<Integer>> partitioningCollectorParallel() {
+        return eithers.parallelStream().collect(Pair.partitioning());
+    }
+
+}
@@ -0,0 +1,38 @@
+package no.finn.lambdacompanion.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import no.finn.lambdacompanion.Either;
+import no.finn.lambdacompanion.Try;
+
+final class Sizes {
+
+    private Sizes() {
+    }
+
+    static List<Integer> integers(final int size) {
+        final List<Integer> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    static List<Either<String, Integer>> eithers(final int size) {
+        final List<Either<String, Integer>> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(i % 4 == 0 ? Either.left("left" + (i & 0xff)) : Either.right(i));
+        }
+        return list;
+    }
+
+    static List<Try<Integer>> tries(final int size) {
+        final List<Try<Integer>> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(Try.success(i));
+        }
+        return list;
+    }
+
+}
@@ -0,0 +1,105 @@
+package no.finn.lambdacompanion.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import no.finn.lambdacompanion.IntTry;
+import no.finn.lambdacompanion.Try;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TryBenchmark {
+
+    private String valid = "42";
+
+    private String invalid = "forty-two";
+
+    private int zero = 0;
+
+    private final Exception exception = new IllegalStateException("benchmark");
+
+    @Benchmark
+    public Try<Integer> ofSuccess() {
+        return Try.of(Integer::valueOf, valid);
+    }
+
+    @Benchmark
+    public Try<Integer> ofFailure() {
+        return Try.of(Integer::valueOf, invalid);
+    }
+
+    @Benchmark
+    public Try<Integer> ofFailureWithNewException() {
+        return Try.of(s -> {
+            throw new IllegalArgumentException(s);
+        }, invalid);
+    }
+
+    @Benchmark
+    public Try<Integer> stacklessFailure() {
+        return Try.stacklessFailure(invalid);
+    }
+
+    @Benchmark
+    public Integer mapChainOnSuccess() {
+        return Try.of(Integer::valueOf, valid)
+                  .map(i -> i + 1)
+                  .map(i -> i * 2)
+                  .flatMap(i -> Try.success(i - 1))
+                  .map(i -> i / 3)
+                  .orElse(0);
+    }
+
+    @Benchmark
+    public int intMapChainOnSuccess() {
+        return IntTry.of(Integer::parseInt, valid)
+                     .map(i -> i + 1)
+                     .map(i -> i * 2)
+                     .flatMap(i -> IntTry.success(i - 1))
+                     .map(i -> i / 3)
+                     .orElse(0);
+    }
+
+    @Benchmark
+    public Integer mapChainOnFailure() {
+        return Try.<Integer>failure(exception)
+                  .map(i -> i + 1)
+                  .map(i -> i * 2)
+                  .flatMap(i -> Try.success(i - 1))
+                  .map(i -> i / 3)
+                  .orElse(0);
+    }
+
+    @Benchmark
+    public Integer deferredMapChainOnSuccess() {
+        return Try.defer(() -> Integer.valueOf(valid))
+                  .map(i -> i + 1)
+                  .map(i -> i * 2)
+                  .flatMap(i -> Try.success(i - 1))
+                  .map(i -> i / 3)
+                  .orElse(0);
+    }
+
+    @Benchmark
+    public Integer mapChainFailingMidway() {
+        return Try.of(Integer::valueOf, valid)
+                  .map(i -> i + 1)
+                  .map(i -> i / zero)
+                  .flatMap(i -> Try.success(i - 1))
+                  .map(i -> i / 3)
+                  .orElse(0);
+    }
+
+}
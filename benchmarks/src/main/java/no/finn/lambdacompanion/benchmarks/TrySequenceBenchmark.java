@@ -0,0 +1,55 @@
+package no.finn.lambdacompanion.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import no.finn.lambdacompanion.Try;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class TrySequenceBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    private int size;
+
+    private List<Integer> values;
+
+    private List<Try<Integer>> tries;
+
+    @Setup
+    public void setUp() {
+        values = Sizes.integers(size);
+        tries = Sizes.tries(size);
+    }
+
+    @Benchmark
+    public Try<List<Integer>> sequence() {
+        return Try.sequence(tries);
+    }
+
+    @Benchmark
+    public Try<List<Integer>> traverse() {
+        return Try.traverse(values, i -> i + 1);
+    }
+
+    @Benchmark
+    public Try<List<Integer>> collect() {
+        return tries.stream().collect(Try.toSequence(tries.size()));
+    }
+
+}
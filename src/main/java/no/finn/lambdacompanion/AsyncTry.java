@@ -0,0 +1,220 @@
+package no.finn.lambdacompanion;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Asynchronous counterpart of {@link Try}, backed by a {@link CompletableFuture} of a Try.
+ *
+ * The supplier and every mapping stage run on the given Executor, and nothing in this class blocks the calling thread
+ * except {@link #join()}. Several AsyncTry can thus be started before any of them completes, e.g. to fan out requests.
+ *
+ * When no Executor is given, a virtual-thread-per-task executor is used when running on JDK 21 or later, and the
+ * common ForkJoinPool otherwise.
+ *
+ * @param <T> t
+ */
+@Deprecated
+public final class AsyncTry<T> {
+
+    private final CompletableFuture<Try<T>> future;
+
+    private final Executor executor;
+
+    private AsyncTry(CompletableFuture<Try<T>> future, Executor executor) {
+        this.future = future;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts running the supplier on the default executor
+     * @param supplier The supplier function
+     * @param <U> Type of the supplied object from the supplier function
+     * @return an AsyncTry
+     */
+    public static <U> AsyncTry<U> of(ThrowingSupplier<U, ? extends Exception> supplier) {
+        return of(supplier, defaultExecutor());
+    }
+
+    /**
+     * Starts running the supplier on the given executor. Later stages run on the same executor.
+     * @param supplier The supplier function
+     * @param executor executor
+     * @param <U> Type of the supplied object from the supplier function
+     * @return an AsyncTry
+     */
+    public static <U> AsyncTry<U> of(ThrowingSupplier<U, ? extends Exception> supplier, Executor executor) {
+        return new AsyncTry<>(CompletableFuture.supplyAsync(() -> Try.of(supplier), executor), executor);
+    }
+
+    /**
+     * @param t an already computed Try
+     * @param executor executor for later stages
+     * @param <U> the type
+     * @return a completed AsyncTry
+     */
+    public static <U> AsyncTry<U> of(Try<U> t, Executor executor) {
+        return new AsyncTry<>(CompletableFuture.completedFuture(t), executor);
+    }
+
+    /**
+     * Adapts a CompletableFuture: a normal completion becomes a Success, an exceptional completion a Failure.
+     * @param future future
+     * @param executor executor for later stages
+     * @param <U> the type
+     * @return an AsyncTry completing when the future completes
+     */
+    public static <U> AsyncTry<U> of(CompletableFuture<U> future, Executor executor) {
+        return new AsyncTry<>(future.handle(AsyncTry::toTry), executor);
+    }
+
+    /**
+     * @see Try#map(ThrowingFunction)
+     * @param mapper Function from T to U with an Exception in the signature
+     * @param <U> Type of the return value of the function
+     * @return a new AsyncTry
+     */
+    public <U> AsyncTry<U> map(ThrowingFunction<? super T, ? extends U, ? extends Exception> mapper) {
+        return new AsyncTry<>(future.thenApplyAsync(t -> t.map(mapper), executor), executor);
+    }
+
+    /**
+     * Same as map() but needs a function ending in an AsyncTry, which is completed without blocking.
+     * @param mapper Function from T to AsyncTry&lt;U&gt; with an Exception in the signature
+     * @param <U> Type of the value to be wrapped in an AsyncTry of the function
+     * @return a new AsyncTry
+     */
+    @SuppressWarnings("unchecked")
+    public <U> AsyncTry<U> flatMap(ThrowingFunction<? super T, ? extends AsyncTry<U>, ? extends Exception> mapper) {
+        return new AsyncTry<>(future.thenComposeAsync(t -> {
+            if (!(t instanceof Success)) {
+                return CompletableFuture.completedFuture((Try<U>) (Try<?>) t);
+            }
+            try {
+                final AsyncTry<U> next = mapper.apply(((Success<T>) t).get());
+                return next.future;
+            } catch (Exception e) {
+                return CompletableFuture.completedFuture(new Failure<>(e));
+            }
+        }, executor), executor);
+    }
+
+    /**
+     * @see Try#peekFailure(Consumer)
+     * @param consumer Consuming function with a failure
+     * @return a new AsyncTry completing with the same Try
+     */
+    public AsyncTry<T> peekFailure(Consumer<Failure<T>> consumer) {
+        return new AsyncTry<>(future.thenApplyAsync(t -> t.peekFailure(consumer), executor), executor);
+    }
+
+    /**
+     * @see Try#recover(Function, Function)
+     * @param successFunc Function handling the Success case
+     * @param failureFunc Function handling the Failure case
+     * @param <U> Type of the value
+     * @return a future of a value of type U
+     */
+    public <U> CompletableFuture<U> recover(Function<? super T, ? extends U> successFunc,
+                                            Function<Exception, ? extends U> failureFunc) {
+        return future.thenApplyAsync(t -> t.recover(successFunc, failureFunc), executor);
+    }
+
+    /**
+     * @see Try#orElse(Object)
+     * @param defaultValue default fallback value
+     * @return a future of the value
+     */
+    public CompletableFuture<T> orElse(T defaultValue) {
+        return future.thenApplyAsync(t -> t.orElse(defaultValue), executor);
+    }
+
+    /**
+     * @return a future completing with the Try once all stages have run
+     */
+    public CompletableFuture<Try<T>> toTry() {
+        return future;
+    }
+
+    /**
+     * @return a future completing with the value on Success, and exceptionally on Failure with a CompletionException
+     * whose cause is the exception, as reported by get and join. Adapting the future back with
+     * {@link #of(CompletableFuture, Executor)} yields the same Failure.
+     */
+    public CompletableFuture<T> toCompletableFuture() {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        future.whenComplete((t, throwable) -> {
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+            } else {
+                t.recover(result::complete, e -> result.completeExceptionally(
+                        t instanceof Failure ? new FailureCompletionException((Failure<?>) t) : e));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Blocks until all stages have run
+     * @return the resulting Try
+     */
+    public Try<T> join() {
+        return future.join();
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncTry{" +
+                "future=" + future +
+                '}';
+    }
+
+    /**
+     * @return a virtual-thread-per-task executor when running on JDK 21 or later, the common ForkJoinPool otherwise
+     */
+    public static Executor defaultExecutor() {
+        return DefaultExecutor.INSTANCE;
+    }
+
+    private static <U> Try<U> toTry(U value, Throwable throwable) {
+        if (throwable == null) {
+            return new Success<>(value);
+        }
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            if (cause instanceof FailureCompletionException) {
+                // completed from a Failure, which was observed already
+                return ((FailureCompletionException) cause).getFailure();
+            }
+            cause = cause.getCause();
+        }
+        if (cause instanceof Exception) {
+            return new Failure<>((Exception) cause);
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new CompletionException(cause);
+    }
+
+    private static final class DefaultExecutor {
+
+        private static final Executor INSTANCE = create();
+
+        private static Executor create() {
+            try {
+                return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                return ForkJoinPool.commonPool();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,222 @@
+package no.finn.lambdacompanion;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces loads of single keys into calls to a bulk function, in the style of DataLoader.
+ * <p>
+ * Keys requested with {@link #load(Object)} are queued into a batch, which is dispatched to the bulk function once it
+ * holds maxBatchSize distinct keys, or maxWait after its first key was queued, whichever comes first. Requests for
+ * the same key in a batch share the same result. The bulk function runs on the executor, and every key gets its own
+ * Try:
+ * <ul>
+ *     <li>a Success of the value the bulk function returned for the key,</li>
+ *     <li>a Failure holding the exception of the bulk function if the whole batch failed,</li>
+ *     <li>a Failure holding a NoSuchElementException if the bulk function returned no value for the key.</li>
+ * </ul>
+ * <pre>
+ * {@code
+ *     BatchLoader<Long, User> users = BatchLoader.of(repo::loadAll, scheduler, 100, 5, TimeUnit.MILLISECONDS);
+ *     List<AsyncTry<User>> loading = ids.stream().map(users::load).collect(toList());
+ * }
+ * </pre>
+ * Results are not cached, see {@link Memoized} for that.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+@Deprecated
+public final class BatchLoader<K, V> {
+
+    private final ThrowingFunction<List<K>, ? extends Map<K, ? extends V>, ? extends Exception> bulk;
+
+    private final ScheduledExecutorService executor;
+
+    private final int maxBatchSize;
+
+    private final long maxWaitNanos;
+
+    private final LongAdder requests = new LongAdder();
+
+    private final LongAdder batches = new LongAdder();
+
+    private Batch<K, V> pending;
+
+    private BatchLoader(ThrowingFunction<List<K>, ? extends Map<K, ? extends V>, ? extends Exception> bulk,
+                        ScheduledExecutorService executor, int maxBatchSize, long maxWaitNanos) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, got " + maxBatchSize);
+        }
+        this.bulk = bulk;
+        this.executor = executor;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWaitNanos;
+    }
+
+    /**
+     * @param bulk function loading the values of a list of distinct keys
+     * @param executor executor running the bulk function and the batch timers
+     * @param maxBatchSize maximum number of distinct keys per call to the bulk function
+     * @param maxWait maximum time a key waits for its batch to fill up
+     * @param unit unit of the maximum wait
+     * @param <T> type of the keys
+     * @param <U> type of the values
+     * @return a BatchLoader
+     */
+    public static <T, U> BatchLoader<T, U> of(ThrowingFunction<List<T>, ? extends Map<T, ? extends U>, ? extends Exception> bulk,
+                                              ScheduledExecutorService executor, int maxBatchSize,
+                                              long maxWait, TimeUnit unit) {
+        return new BatchLoader<>(bulk, executor, maxBatchSize, unit.toNanos(maxWait));
+    }
+
+    /**
+     * Queues the key into the current batch. If the executor rejects the bulk call, e.g. once shut down, every key of
+     * the batch gets a Failure holding the RejectedExecutionException.
+     * @param key key
+     * @return an AsyncTry completing once the batch of the key has been loaded
+     * @throws RejectedExecutionException if the executor rejects the timer of a new batch
+     */
+    public AsyncTry<V> load(K key) {
+        requests.increment();
+        final CompletableFuture<V> future;
+        Batch<K, V> full = null;
+        synchronized (this) {
+            if (pending == null) {
+                final Batch<K, V> batch = new Batch<>();
+                // the timer cannot dispatch the batch before it is pending, as dispatching locks this loader too
+                batch.timer = executor.schedule(() -> dispatch(batch), maxWaitNanos, TimeUnit.NANOSECONDS);
+                pending = batch;
+            }
+            future = pending.futures.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (pending.futures.size() >= maxBatchSize) {
+                full = pending;
+                pending = null;
+            }
+        }
+        if (full != null) {
+            run(full);
+        }
+        return AsyncTry.of(future, executor);
+    }
+
+    /**
+     * Queues the keys and dispatches the current batch right away, then waits for all of them to be loaded
+     * @param keys keys
+     * @return the Try of each key, in the iteration order of the keys
+     */
+    public Map<K, Try<V>> loadAll(Collection<? extends K> keys) {
+        final Map<K, AsyncTry<V>> loading = new LinkedHashMap<>();
+        for (K key : keys) {
+            loading.put(key, load(key));
+        }
+        dispatch();
+        final Map<K, Try<V>> results = new LinkedHashMap<>();
+        loading.forEach((key, t) -> results.put(key, t.join()));
+        return results;
+    }
+
+    /**
+     * Dispatches the current batch right away, without waiting for it to fill up
+     */
+    public void dispatch() {
+        final Batch<K, V> batch;
+        synchronized (this) {
+            batch = pending;
+            pending = null;
+        }
+        if (batch != null) {
+            run(batch);
+        }
+    }
+
+    /**
+     * @return the number of keys requested
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * @return the number of calls made to the bulk function
+     */
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchLoader{" +
+                "requests=" + getRequests() +
+                ", batches=" + getBatches() +
+                '}';
+    }
+
+    private void dispatch(Batch<K, V> batch) {
+        synchronized (this) {
+            if (pending != batch) {
+                return;
+            }
+            pending = null;
+        }
+        run(batch);
+    }
+
+    private void run(Batch<K, V> batch) {
+        if (batch.timer != null) {
+            batch.timer.cancel(false);
+        }
+        try {
+            executor.execute(() -> call(batch));
+        } catch (RejectedExecutionException e) {
+            final FailureCompletionException failed = new FailureCompletionException(new Failure<>(e));
+            batch.futures.values().forEach(future -> future.completeExceptionally(failed));
+        }
+    }
+
+    private void call(Batch<K, V> batch) {
+        batches.increment();
+        try {
+            final List<K> keys = new ArrayList<>(batch.futures.keySet());
+            final Try<? extends Map<K, ? extends V>> loaded = Try.of(bulk, keys);
+            loaded.recover(values -> {
+                batch.futures.forEach((key, future) -> {
+                    final V value = values.get(key);
+                    if (value != null) {
+                        future.complete(value);
+                    } else {
+                        future.completeExceptionally(new NoSuchElementException("No value loaded for key " + key));
+                    }
+                });
+                return null;
+            }, e -> {
+                // the keys share the Failure of the batch, observed once
+                final FailureCompletionException failed = new FailureCompletionException((Failure<?>) loaded);
+                batch.futures.values().forEach(future -> future.completeExceptionally(failed));
+                return null;
+            });
+        } catch (Throwable t) {
+            batch.futures.values().forEach(future -> future.completeExceptionally(t));
+            throw t;
+        }
+    }
+
+    private static final class Batch<K, V> {
+
+        private final Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+
+        private ScheduledFuture<?> timer;
+
+    }
+
+}
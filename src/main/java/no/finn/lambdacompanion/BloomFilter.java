@@ -0,0 +1,99 @@
+package no.finn.lambdacompanion;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over 64 bit hashes, sized up front from the expected number of distinct elements and the accepted
+ * false positive probability: about 1.2 bytes per expected element at 1%, whatever the elements are.
+ * <p>
+ * The bits are stored in an AtomicLongArray and set with compare-and-set, so the filter can be shared by the splits of
+ * a parallel stream without locking. The bits of an element are derived from its hash by double hashing.
+ */
+final class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+
+    private final long bits;
+
+    private final int hashes;
+
+    /**
+     * @param expectedSize expected number of distinct elements
+     * @param fpp accepted probability of a new element being taken for one already added, once expectedSize
+     *            elements have been added
+     */
+    BloomFilter(final long expectedSize, final double fpp) {
+        if (expectedSize < 1) {
+            throw new IllegalArgumentException("Expected size must be positive, got " + expectedSize);
+        }
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("False positive probability must be between 0 and 1 exclusive, got "
+                                                       + fpp);
+        }
+        final long optimalBits = (long) Math.ceil(-expectedSize * Math.log(fpp) / (LN2 * LN2));
+        final long wordCount = (optimalBits + 63) / 64;
+        if (wordCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bloom filter for " + expectedSize + " elements at " + fpp
+                                                       + " would need more than " + Integer.MAX_VALUE + " words");
+        }
+        this.words = new AtomicLongArray((int) wordCount);
+        this.bits = wordCount * 64;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedSize * LN2));
+    }
+
+    /**
+     * @param hash 64 bit hash of the element
+     * @return true if the element was definitely not added before, false if it probably was
+     */
+    boolean add(final long hash) {
+        final long h1 = mix(hash);
+        final long h2 = mix(h1) | 1;
+        boolean added = false;
+        long combined = h1;
+        for (int i = 0; i < hashes; i++) {
+            final long bit = (combined & Long.MAX_VALUE) % bits;
+            added |= set((int) (bit >>> 6), 1L << bit);
+            combined += h2;
+        }
+        return added;
+    }
+
+    /**
+     * @return the number of bits of the filter
+     */
+    long bitSize() {
+        return bits;
+    }
+
+    int hashCount() {
+        return hashes;
+    }
+
+    private boolean set(final int index, final long mask) {
+        long word = words.get(index);
+        while ((word & mask) == 0) {
+            if (words.compareAndSet(index, word, word | mask)) {
+                return true;
+            }
+            word = words.get(index);
+        }
+        return false;
+    }
+
+    /**
+     * Finalization step of MurmurHash3, spreading every bit of the key over the whole hash
+     * @param key key
+     * @return the mixed key
+     */
+    static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+}
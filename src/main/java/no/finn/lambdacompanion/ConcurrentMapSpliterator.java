@@ -0,0 +1,142 @@
+package no.finn.lambdacompanion;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Spliterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator mapping the elements of a source spliterator on an executor, with at most maxInFlight mappings running
+ * or waiting to be consumed at any time.
+ * <p>
+ * The source is only pulled when a slot is free, so a slow consumer or slow mappings hold back the source instead of
+ * letting it be drained into memory. In ordered mode, results are emitted in encounter order: a result completed ahead
+ * of an earlier one waits in the in-flight window, which thus acts as a reorder buffer bounded by maxInFlight.
+ * In unordered mode, results are emitted as they complete.
+ * <p>
+ * Pulling from the source and consuming results happen on the thread traversing the spliterator, so this spliterator
+ * does not split. {@link #cancel()} cancels the mappings still in flight, e.g. when the stream is closed early.
+ * If that thread is interrupted while waiting for a result, the mappings in flight are cancelled and the stream ends
+ * with a single Failure holding the InterruptedException.
+ *
+ * @param <T> type of the source elements
+ * @param <R> type of the mapped elements
+ */
+final class ConcurrentMapSpliterator<T, R> implements Spliterator<Try<R>> {
+
+    private final Spliterator<T> source;
+
+    private final int maxInFlight;
+
+    private final boolean ordered;
+
+    private final Executor executor;
+
+    private final ThrowingFunction<? super T, ? extends R, ? extends Exception> mapper;
+
+    private final Deque<FutureTask<Try<R>>> inFlight = new ArrayDeque<>();
+
+    private final BlockingQueue<FutureTask<Try<R>>> completed = new LinkedBlockingQueue<>();
+
+    private boolean exhausted;
+
+    ConcurrentMapSpliterator(final Spliterator<T> source, final int maxInFlight, final boolean ordered,
+                             final Executor executor,
+                             final ThrowingFunction<? super T, ? extends R, ? extends Exception> mapper) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("At least one mapping must be allowed in flight, got " + maxInFlight);
+        }
+        this.source = source;
+        this.maxInFlight = maxInFlight;
+        this.ordered = ordered;
+        this.executor = executor;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super Try<R>> action) {
+        while (!exhausted && inFlight.size() < maxInFlight) {
+            exhausted = !source.tryAdvance(this::submit);
+        }
+        if (inFlight.isEmpty()) {
+            return false;
+        }
+        FutureTask<Try<R>> next = null;
+        final Try<R> result;
+        try {
+            if (ordered) {
+                next = inFlight.pollFirst();
+            } else {
+                next = completed.take();
+                inFlight.remove(next);
+            }
+            result = result(next);
+        } catch (InterruptedException e) {
+            // stops the stream, rather than turning every pending result into a Failure
+            Thread.currentThread().interrupt();
+            if (next != null) {
+                next.cancel(true);
+            }
+            cancel();
+            exhausted = true;
+            action.accept(new Failure<>(e));
+            return true;
+        }
+        action.accept(result);
+        return true;
+    }
+
+    @Override
+    public Spliterator<Try<R>> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        final long size = source.estimateSize();
+        return size == Long.MAX_VALUE ? size : size + inFlight.size();
+    }
+
+    @Override
+    public int characteristics() {
+        return (ordered ? source.characteristics() & ORDERED : 0) | NONNULL;
+    }
+
+    void cancel() {
+        for (FutureTask<Try<R>> task : inFlight) {
+            task.cancel(true);
+        }
+        inFlight.clear();
+    }
+
+    private void submit(final T t) {
+        final FutureTask<Try<R>> task = new FutureTask<Try<R>>(() -> Try.<R, T>of(mapper::apply, t)) {
+            @Override
+            protected void done() {
+                if (!ordered) {
+                    completed.add(this);
+                }
+            }
+        };
+        inFlight.addLast(task);
+        executor.execute(task);
+    }
+
+    private static <R> Try<R> result(final FutureTask<Try<R>> task) throws InterruptedException {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            return new Failure<>((Exception) cause);
+        }
+    }
+
+}
@@ -0,0 +1,325 @@
+package no.finn.lambdacompanion;
+
+import java.util.OptionalDouble;
+import java.util.function.Function;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Primitive specialisation of {@link Try} for double values, so numeric work does not box at every step.
+ *
+ * A DoubleTry is a Success holding a double, or a Failure holding an Exception. Use {@link Try#mapToDouble} to enter it
+ * from a Try, and {@link #mapToObj(ThrowingDoubleFunction)} or {@link #toTry()} to get back to one.
+ */
+@Deprecated
+public abstract class DoubleTry {
+
+    DoubleTry() {
+    }
+
+    /**
+     * @see Try#map(ThrowingFunction)
+     * @param mapper Function from double to double with an Exception in the signature
+     * @return a new DoubleTry
+     */
+    public abstract DoubleTry map(ThrowingDoubleUnaryOperator<? extends Exception> mapper);
+
+    /**
+     * @see Try#flatMap(ThrowingFunction)
+     * @param mapper Function from double to DoubleTry with an Exception in the signature
+     * @return a new DoubleTry
+     */
+    public abstract DoubleTry flatMap(ThrowingDoubleFunction<? extends DoubleTry, ? extends Exception> mapper);
+
+    /**
+     * Applies a function on the value, going back to an object Try
+     * @param mapper Function from double to U with an Exception in the signature
+     * @param <U> Type of the return value of the function
+     * @return a new Try
+     */
+    public abstract <U> Try<U> mapToObj(ThrowingDoubleFunction<? extends U, ? extends Exception> mapper);
+
+    /**
+     * @see Try#orElse(Object)
+     * @param defaultValue default fallback value
+     * @return value
+     */
+    public abstract double orElse(double defaultValue);
+
+    /**
+     * @see Try#orElseGet(java.util.function.Supplier)
+     * @param defaultValue lazy default supplier of fallback value
+     * @return value
+     */
+    public abstract double orElseGet(DoubleSupplier defaultValue);
+
+    /**
+     * @see Try#recover(Function, Function)
+     * @param successFunc Function handling the Success case
+     * @param failureFunc Function handling the Failure case
+     * @return a double value
+     */
+    public abstract double recover(DoubleUnaryOperator successFunc, ToDoubleFunction<Exception> failureFunc);
+
+    /**
+     * @see Try#orElseThrow(Function)
+     * @param ExceptionMapper Function to transform the Exception if this is a Failure
+     * @param <X> any Exception
+     * @param <Y> any Exception
+     * @return Value or a transformed Exception
+     * @throws Y any Exception
+     */
+    public abstract <X extends Exception, Y extends Exception> double orElseThrow(Function<X, Y> ExceptionMapper) throws Y;
+
+    /**
+     * @see Try#orElseRethrow()
+     * @param <E> any Exception
+     * @return Value or a transformed Exception
+     * @throws E any Exception
+     */
+    public abstract <E extends Exception> double orElseRethrow() throws E;
+
+    /**
+     * @return an OptionalDouble of the value if Success, an empty one if Failure
+     */
+    public abstract OptionalDouble toOptional();
+
+    /**
+     * @return the boxed Try
+     */
+    public abstract Try<Double> toTry();
+
+    /**
+     * Starting point to the DoubleTry structure. Create a try from a supplier of double that throws an Exception
+     * @param supplier The supplier function
+     * @return a DoubleTry
+     */
+    public static DoubleTry of(ThrowingDoubleSupplier<? extends Exception> supplier) {
+        try {
+            return new Success(supplier.getAsDouble());
+        } catch (Exception e) {
+            return new Failure(e);
+        }
+    }
+
+    /**
+     * Starting point to the DoubleTry structure. Create a try from a function to double that throws an Exception
+     * and an argument to this function
+     * @param func Function to be attempted, e.g. Double::parseDouble
+     * @param v Argument for the function
+     * @param <V> Type of the function argument
+     * @return a DoubleTry
+     */
+    public static <V> DoubleTry of(ThrowingToDoubleFunction<V, ? extends Exception> func, V v) {
+        try {
+            return new Success(func.applyAsDouble(v));
+        } catch (Exception e) {
+            return new Failure(e);
+        }
+    }
+
+    public static DoubleTry success(double value) {
+        return new Success(value);
+    }
+
+    public static DoubleTry failure(Exception exception) {
+        return new Failure(exception);
+    }
+
+    /**
+     * Wraps an exception already held by another failure without notifying the failure observer again
+     */
+    static DoubleTry rewrap(Exception exception) {
+        return new Failure(exception, false);
+    }
+
+    private static final class Success extends DoubleTry {
+
+        private final double value;
+
+        Success(final double value) {
+            this.value = value;
+        }
+
+        @Override
+        public DoubleTry map(ThrowingDoubleUnaryOperator<? extends Exception> mapper) {
+            try {
+                return new Success(mapper.applyAsDouble(value));
+            } catch (Exception e) {
+                return new Failure(e);
+            }
+        }
+
+        @Override
+        public DoubleTry flatMap(ThrowingDoubleFunction<? extends DoubleTry, ? extends Exception> mapper) {
+            try {
+                return mapper.apply(value);
+            } catch (Exception e) {
+                return new Failure(e);
+            }
+        }
+
+        @Override
+        public <U> Try<U> mapToObj(ThrowingDoubleFunction<? extends U, ? extends Exception> mapper) {
+            try {
+                return new no.finn.lambdacompanion.Success<>(mapper.apply(value));
+            } catch (Exception e) {
+                return new no.finn.lambdacompanion.Failure<>(e);
+            }
+        }
+
+        @Override
+        public double orElse(double defaultValue) {
+            return value;
+        }
+
+        @Override
+        public double orElseGet(DoubleSupplier defaultValue) {
+            return value;
+        }
+
+        @Override
+        public double recover(DoubleUnaryOperator successFunc, ToDoubleFunction<Exception> failureFunc) {
+            return successFunc.applyAsDouble(value);
+        }
+
+        @Override
+        public <X extends Exception, Y extends Exception> double orElseThrow(Function<X, Y> ExceptionMapper) throws Y {
+            return value;
+        }
+
+        @Override
+        public <E extends Exception> double orElseRethrow() throws E {
+            return value;
+        }
+
+        @Override
+        public OptionalDouble toOptional() {
+            return OptionalDouble.of(value);
+        }
+
+        @Override
+        public Try<Double> toTry() {
+            return new no.finn.lambdacompanion.Success<>(value);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            return Double.compare(value, ((Success) o).value) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Double.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return "DoubleSuccess{" +
+                    "value=" + value +
+                    '}';
+        }
+
+    }
+
+    private static final class Failure extends DoubleTry {
+
+        private final Exception e;
+
+        Failure(final Exception e) {
+            this(e, true);
+        }
+
+        Failure(final Exception e, final boolean observe) {
+            this.e = e;
+            if (observe) {
+                no.finn.lambdacompanion.Failure.observe(e);
+            }
+        }
+
+        @Override
+        public DoubleTry map(ThrowingDoubleUnaryOperator<? extends Exception> mapper) {
+            return this;
+        }
+
+        @Override
+        public DoubleTry flatMap(ThrowingDoubleFunction<? extends DoubleTry, ? extends Exception> mapper) {
+            return this;
+        }
+
+        @Override
+        public <U> Try<U> mapToObj(ThrowingDoubleFunction<? extends U, ? extends Exception> mapper) {
+            return no.finn.lambdacompanion.Failure.rewrap(e);
+        }
+
+        @Override
+        public double orElse(double defaultValue) {
+            return defaultValue;
+        }
+
+        @Override
+        public double orElseGet(DoubleSupplier defaultValue) {
+            return defaultValue.getAsDouble();
+        }
+
+        @Override
+        public double recover(DoubleUnaryOperator successFunc, ToDoubleFunction<Exception> failureFunc) {
+            return failureFunc.applyAsDouble(e);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <X extends Exception, Y extends Exception> double orElseThrow(Function<X, Y> ExceptionMapper) throws Y {
+            throw ExceptionMapper.apply((X) e);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <E extends Exception> double orElseRethrow() throws E {
+            throw (E) e;
+        }
+
+        @Override
+        public OptionalDouble toOptional() {
+            return OptionalDouble.empty();
+        }
+
+        @Override
+        public Try<Double> toTry() {
+            return no.finn.lambdacompanion.Failure.rewrap(e);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Failure failure = (Failure) o;
+            return e != null ? e.equals(failure.e) : failure.e == null;
+        }
+
+        @Override
+        public int hashCode() {
+            return e != null ? e.hashCode() : 0;
+        }
+
+        @Override
+        public String toString() {
+            return "DoubleFailure{" +
+                    "e=" + e +
+                    '}';
+        }
+
+    }
+
+}
@@ -0,0 +1,98 @@
+package no.finn.lambdacompanion;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Spliterator skipping the elements of a source spliterator while they match a predicate, then emitting all the
+ * following ones.
+ * <p>
+ * Once the first non-matching element has been found, splits are delegated to the source, so the rest of the stream
+ * partitions as well as the source does. A split requested before that first finds it, and returns it alone.
+ *
+ * @param <T> t
+ */
+final class DropWhileSpliterator<T> implements Spliterator<T> {
+
+    private final Spliterator<T> source;
+
+    private final Predicate<? super T> predicate;
+
+    private boolean dropping = true;
+
+    private boolean hasFirst;
+
+    private T first;
+
+    DropWhileSpliterator(final Spliterator<T> source, final Predicate<? super T> predicate) {
+        this.source = source;
+        this.predicate = predicate;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+        drop();
+        if (hasFirst) {
+            final T t = first;
+            hasFirst = false;
+            first = null;
+            action.accept(t);
+            return true;
+        }
+        return source.tryAdvance(action);
+    }
+
+    @Override
+    public void forEachRemaining(final Consumer<? super T> action) {
+        if (tryAdvance(action)) {
+            source.forEachRemaining(action);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Spliterator<T> trySplit() {
+        drop();
+        if (hasFirst) {
+            final Spliterator<T> prefix = (Spliterator<T>) Spliterators.spliterator(new Object[]{first},
+                                                                                   characteristics() & ~SORTED);
+            hasFirst = false;
+            first = null;
+            return prefix;
+        }
+        return source.trySplit();
+    }
+
+    @Override
+    public long estimateSize() {
+        return source.estimateSize() + (hasFirst ? 1 : 0);
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics() & (ORDERED | DISTINCT | SORTED | NONNULL | IMMUTABLE | CONCURRENT);
+    }
+
+    @Override
+    public Comparator<? super T> getComparator() {
+        return source.getComparator();
+    }
+
+    private void drop() {
+        while (dropping) {
+            if (!source.tryAdvance(t -> {
+                if (!predicate.test(t)) {
+                    dropping = false;
+                    hasFirst = true;
+                    first = t;
+                }
+            })) {
+                dropping = false;
+            }
+        }
+    }
+
+}
@@ -1,5 +1,6 @@
 package no.finn.lambdacompanion;
 
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -90,6 +91,65 @@ public abstract class Either<L, R> {
      */
     public abstract <X> Either<L, X> joinRight(final Function<R, Either<L, X>> rightJoiner);
 
+    /**
+     * Right-biased map: the given function is applied if this is a Right, a Left is returned as is.
+     * Same as right().map(mapper), without going through a projection.
+     *
+     * @param mapper the function to apply if this is a Right
+     * @param <X>    the resulting type of applying the function
+     * @return the results of applying the function
+     */
+    public abstract <X> Either<L, X> map(final Function<? super R, ? extends X> mapper);
+
+    /**
+     * Right-biased flatMap: the given function is applied if this is a Right, a Left is returned as is.
+     * Same as joinRight(mapper), accepting a wider function type.
+     *
+     * @param mapper the function to apply if this is a Right
+     * @param <X>    the resulting type of applying the function
+     * @return the results of applying the function
+     */
+    public abstract <X> Either<L, X> flatMap(final Function<? super R, ? extends Either<L, X>> mapper);
+
+    /**
+     * @param other other
+     * @return the value from this Right or the given argument if this is a Left.
+     */
+    public abstract R getOrElse(final R other);
+
+    /**
+     * @param <X>             Type of the exception to be thrown
+     * @param exceptionMapper The function which will return the exception to be thrown
+     * @return the value from this Right or throw an exception to be created by the provided function if this is a Left.
+     * @throws X if this is a Left
+     */
+    public abstract <X extends Exception> R orElseThrow(final Function<? super L, X> exceptionMapper) throws X;
+
+    /**
+     * Executes the given side-effecting function if this is a Right and returns this Either
+     *
+     * @param consumer consumer
+     * @return this Either
+     */
+    public abstract Either<L, R> peek(final Consumer<? super R> consumer);
+
+    /**
+     * @return a Right of the left value if this is a Left, a Left of the right value if this is a Right
+     */
+    public abstract Either<R, L> swap();
+
+    /**
+     * @return the left value
+     * @throws NoSuchElementException if this is a Right
+     */
+    abstract L getLeft();
+
+    /**
+     * @return the right value
+     * @throws NoSuchElementException if this is a Left
+     */
+    abstract R getRight();
+
     /**
      * @param value the value for the left side
      * @param <L>   the type of the left side of the resulting Left[L,R]
@@ -222,7 +282,7 @@ public abstract class Either<L, R> {
          * @return the results of applying the function
          */
         public <X> Either<L, X> map(final Function<R, X> mapper) {
-            return either.joinRight(right -> Either.right(mapper.apply(right)));
+            return either.map(mapper);
         }
 
         /**
@@ -266,7 +326,7 @@ public abstract class Either<L, R> {
          * @return the value from this Right or the given argument if this is a Left.
          */
         public R orElse(final R other) {
-            return either.fold(left -> other, Function.identity());
+            return either.getOrElse(other);
         }
 
         /**
@@ -285,7 +345,7 @@ public abstract class Either<L, R> {
          * @throws NullPointerException if no value is present and {@code exceptionSupplier} is null
          */
         public <X extends Exception> R orElseThrow(Function<L, X> exceptionMapper) throws X {
-            return either.right().toOptional().orElseThrow(() -> exceptionMapper.apply(either.left().toOptional().get()));
+            return either.orElseThrow(exceptionMapper);
         }
     }
 
@@ -323,6 +383,48 @@ public abstract class Either<L, R> {
             return Either.left(value);
         }
 
+        @SuppressWarnings("unchecked")
+        @Override
+        public <X> Either<L, X> map(final Function<? super R, ? extends X> mapper) {
+            return (Either<L, X>) this;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <X> Either<L, X> flatMap(final Function<? super R, ? extends Either<L, X>> mapper) {
+            return (Either<L, X>) this;
+        }
+
+        @Override
+        public R getOrElse(final R other) {
+            return other;
+        }
+
+        @Override
+        public <X extends Exception> R orElseThrow(final Function<? super L, X> exceptionMapper) throws X {
+            throw exceptionMapper.apply(value);
+        }
+
+        @Override
+        public Either<L, R> peek(final Consumer<? super R> consumer) {
+            return this;
+        }
+
+        @Override
+        public Either<R, L> swap() {
+            return new Right<>(value);
+        }
+
+        @Override
+        L getLeft() {
+            return value;
+        }
+
+        @Override
+        R getRight() {
+            throw new NoSuchElementException("Left has no right value");
+        }
+
         @Override
         public boolean equals(final Object o) {
             if (this == o) {
@@ -380,6 +482,47 @@ public abstract class Either<L, R> {
             return rightJoiner.apply(value);
         }
 
+        @Override
+        public <X> Either<L, X> map(final Function<? super R, ? extends X> mapper) {
+            return new Right<>(mapper.apply(value));
+        }
+
+        @Override
+        public <X> Either<L, X> flatMap(final Function<? super R, ? extends Either<L, X>> mapper) {
+            return mapper.apply(value);
+        }
+
+        @Override
+        public R getOrElse(final R other) {
+            return value;
+        }
+
+        @Override
+        public <X extends Exception> R orElseThrow(final Function<? super L, X> exceptionMapper) throws X {
+            return value;
+        }
+
+        @Override
+        public Either<L, R> peek(final Consumer<? super R> consumer) {
+            consumer.accept(value);
+            return this;
+        }
+
+        @Override
+        public Either<R, L> swap() {
+            return new Left<>(value);
+        }
+
+        @Override
+        L getLeft() {
+            throw new NoSuchElementException("Right has no left value");
+        }
+
+        @Override
+        R getRight() {
+            return value;
+        }
+
         @Override
         public boolean equals(final Object o) {
             if (this == o) {
@@ -0,0 +1,61 @@
+package no.finn.lambdacompanion;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator that stops emitting the elements of a source spliterator, in every split, as soon as a failure has
+ * been recorded in the shared reference. Neither SIZED nor SUBSIZED, since the traversal may end early.
+ *
+ * @param <T> t
+ */
+final class FailFastSpliterator<T> implements Spliterator<T> {
+
+    private final Spliterator<T> source;
+
+    private final AtomicReference<Exception> failure;
+
+    FailFastSpliterator(final Spliterator<T> source, final AtomicReference<Exception> failure) {
+        this.source = source;
+        this.failure = failure;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+        return failure.get() == null && source.tryAdvance(action);
+    }
+
+    @Override
+    public void forEachRemaining(final Consumer<? super T> action) {
+        while (failure.get() == null && source.tryAdvance(action)) {
+            // checks the failure between elements
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (failure.get() != null) {
+            return null;
+        }
+        final Spliterator<T> prefix = source.trySplit();
+        return prefix == null ? null : new FailFastSpliterator<>(prefix, failure);
+    }
+
+    @Override
+    public long estimateSize() {
+        return failure.get() == null ? source.estimateSize() : 0;
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics() & ~(SIZED | SUBSIZED);
+    }
+
+    @Override
+    public Comparator<? super T> getComparator() {
+        return source.getComparator();
+    }
+
+}
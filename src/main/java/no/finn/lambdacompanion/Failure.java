@@ -9,10 +9,44 @@ import java.util.function.Supplier;
 @Deprecated
 public class Failure<T> extends Try<T> {
 
+    static volatile FailureObserver observer;
+
     private Exception e;
 
     public Failure(Exception e) {
+        this(e, true);
+    }
+
+    private Failure(Exception e, boolean observe) {
         this.e = e;
+        if (observe) {
+            observe(e);
+        }
+    }
+
+    /**
+     * Wraps an exception already held by another failure, e.g. an IntTry, without notifying the observer again
+     */
+    static <T> Failure<T> rewrap(Exception e) {
+        return new Failure<>(e, false);
+    }
+
+    /**
+     * Notifies the observer, if any, of an exception becoming a failure
+     */
+    static void observe(Exception e) {
+        final FailureObserver current = observer;
+        if (current != null) {
+            notify(current, e);
+        }
+    }
+
+    private static void notify(FailureObserver current, Exception e) {
+        try {
+            current.onFailure(e);
+        } catch (RuntimeException ignored) {
+            // an observer must not turn the creation of a Failure into an exception
+        }
     }
 
     public Exception getException() {
@@ -31,6 +65,21 @@ public class Failure<T> extends Try<T> {
         return (Try<U>) this;
     }
 
+    @Override
+    public IntTry mapToInt(ThrowingToIntFunction<? super T, ? extends Exception> mapper) {
+        return IntTry.rewrap(e);
+    }
+
+    @Override
+    public LongTry mapToLong(ThrowingToLongFunction<? super T, ? extends Exception> mapper) {
+        return LongTry.rewrap(e);
+    }
+
+    @Override
+    public DoubleTry mapToDouble(ThrowingToDoubleFunction<? super T, ? extends Exception> mapper) {
+        return DoubleTry.rewrap(e);
+    }
+
     @Override
     public Optional<Try<T>> filter(final Predicate<T> predicate) {
         return Optional.of(this);
@@ -0,0 +1,31 @@
+package no.finn.lambdacompanion;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * Exceptional completion of a CompletableFuture carrying the {@link Failure} it was completed from, so that adapting
+ * the future back into a Try yields that Failure instead of a new one, observed a second time. Its cause is the
+ * exception of the Failure, which is what get and join report. Stackless, as the cause holds the trace.
+ */
+final class FailureCompletionException extends CompletionException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Failure<?> failure;
+
+    FailureCompletionException(final Failure<?> failure) {
+        super(failure.getException());
+        this.failure = failure;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> Failure<T> getFailure() {
+        return (Failure<T>) failure;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+}
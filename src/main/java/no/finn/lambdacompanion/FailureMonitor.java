@@ -0,0 +1,200 @@
+package no.finn.lambdacompanion;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * {@link FailureObserver} counting the failures of the whole service by exception class, and keeping a sample of them
+ * with their stack traces, to see failure rates that would otherwise stay invisible until someone calls peekFailure.
+ * <pre>
+ * {@code
+ *     FailureMonitor.create(1000, 20).install();
+ * }
+ * </pre>
+ * Counters are LongAdders, one per exception class, so failures are counted without locking or contending. They are
+ * keyed by class name, so the monitor does not keep the classloaders of redeployed code alive. One failure
+ * out of sampleOneIn, drawn at random, is kept in a ring of the last keptSamples sampled failures, and handed to the
+ * sink if any, e.g. to log it.
+ * <p>
+ * {@link #install()} registers the monitor as the global observer of {@link Try} and as an MXBean under
+ * {@code no.finn.lambdacompanion:type=FailureMonitor}.
+ */
+@Deprecated
+public final class FailureMonitor implements FailureObserver, FailureMonitorMXBean {
+
+    private static final String OBJECT_NAME = "no.finn.lambdacompanion:type=FailureMonitor";
+
+    private final ConcurrentMap<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+    private final int sampleOneIn;
+
+    private final AtomicReferenceArray<Exception> samples;
+
+    private final AtomicLong sampled = new AtomicLong();
+
+    private final FailureObserver sink;
+
+    private FailureMonitor(final int sampleOneIn, final int keptSamples, final FailureObserver sink) {
+        if (sampleOneIn < 1 || keptSamples < 0) {
+            throw new IllegalArgumentException("Sampling must be positive and samples kept not negative, got "
+                                                       + sampleOneIn + " and " + keptSamples);
+        }
+        this.sampleOneIn = sampleOneIn;
+        this.samples = new AtomicReferenceArray<>(keptSamples);
+        this.sink = sink;
+    }
+
+    /**
+     * @param sampleOneIn one failure out of sampleOneIn is sampled, on average
+     * @param keptSamples number of the last sampled failures kept
+     * @return a FailureMonitor, not installed yet
+     */
+    public static FailureMonitor create(final int sampleOneIn, final int keptSamples) {
+        return new FailureMonitor(sampleOneIn, keptSamples, null);
+    }
+
+    /**
+     * @param sampleOneIn one failure out of sampleOneIn is sampled, on average
+     * @param keptSamples number of the last sampled failures kept
+     * @param sink observer of the sampled failures
+     * @return a FailureMonitor, not installed yet
+     */
+    public static FailureMonitor create(final int sampleOneIn, final int keptSamples, final FailureObserver sink) {
+        return new FailureMonitor(sampleOneIn, keptSamples, sink);
+    }
+
+    /**
+     * Registers this monitor as the global observer of failures, and as an MXBean, replacing any previous one
+     * @return this monitor
+     */
+    public FailureMonitor install() {
+        Try.setFailureObserver(this);
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+        } catch (JMException | SecurityException e) {
+            // counting still works without JMX
+        }
+        return this;
+    }
+
+    /**
+     * Removes the global observer of failures and the MXBean, if this monitor is the installed one
+     */
+    public void uninstall() {
+        if (Try.getFailureObserver() != this) {
+            return;
+        }
+        Try.setFailureObserver(null);
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+        } catch (JMException | SecurityException e) {
+            // not registered
+        }
+    }
+
+    @Override
+    public void onFailure(final Exception e) {
+        final String type = e == null ? Void.class.getName() : e.getClass().getName();
+        LongAdder count = counts.get(type);
+        if (count == null) {
+            count = counts.computeIfAbsent(type, c -> new LongAdder());
+        }
+        count.increment();
+        if (e != null && (sampleOneIn == 1 || ThreadLocalRandom.current().nextInt(sampleOneIn) == 0)) {
+            sample(e);
+        }
+    }
+
+    /**
+     * @param type exception class
+     * @return the number of failures holding exactly this exception class, or a class of the same name loaded by
+     * another classloader
+     */
+    public long getCount(final Class<? extends Exception> type) {
+        final LongAdder count = counts.get(type.getName());
+        return count == null ? 0 : count.sum();
+    }
+
+    @Override
+    public long getTotal() {
+        return counts.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    @Override
+    public Map<String, Long> getCountsByClass() {
+        final Map<String, Long> byClass = new TreeMap<>();
+        counts.forEach((type, count) -> byClass.put(type, count.sum()));
+        return byClass;
+    }
+
+    /**
+     * @return the last sampled failures, most recent first
+     */
+    public List<Exception> getSamples() {
+        final List<Exception> kept = new ArrayList<>(samples.length());
+        final long last = sampled.get();
+        for (long i = last - 1; i >= 0 && i >= last - samples.length(); i--) {
+            final Exception e = samples.get((int) (i % samples.length()));
+            if (e != null) {
+                kept.add(e);
+            }
+        }
+        return kept;
+    }
+
+    @Override
+    public List<String> getSampledFailures() {
+        final List<String> traces = new ArrayList<>();
+        for (Exception e : getSamples()) {
+            final StringWriter trace = new StringWriter();
+            e.printStackTrace(new PrintWriter(trace));
+            traces.add(trace.toString());
+        }
+        return traces;
+    }
+
+    @Override
+    public void reset() {
+        counts.clear();
+        for (int i = 0; i < samples.length(); i++) {
+            samples.set(i, null);
+        }
+        sampled.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "FailureMonitor{" +
+                "counts=" + getCountsByClass() +
+                '}';
+    }
+
+    private void sample(final Exception e) {
+        if (samples.length() > 0) {
+            samples.set((int) (sampled.getAndIncrement() % samples.length()), e);
+        }
+        if (sink != null) {
+            sink.onFailure(e);
+        }
+    }
+
+}
@@ -0,0 +1,19 @@
+package no.finn.lambdacompanion;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JMX view of a {@link FailureMonitor}, registered under {@code no.finn.lambdacompanion:type=FailureMonitor}
+ */
+public interface FailureMonitorMXBean {
+
+    long getTotal();
+
+    Map<String, Long> getCountsByClass();
+
+    List<String> getSampledFailures();
+
+    void reset();
+
+}
@@ -0,0 +1,14 @@
+package no.finn.lambdacompanion;
+
+/**
+ * Notified of the exception of every {@link Failure} created, once registered with
+ * {@link Try#setFailureObserver(FailureObserver)}. Called on the thread creating the Failure, so it must be cheap and
+ * thread safe. Exceptions thrown by the observer are ignored. An exception is observed once when it becomes a failure,
+ * not again when the failure is converted, e.g. with {@link IntTry#toTry()}.
+ */
+@FunctionalInterface
+public interface FailureObserver {
+
+    void onFailure(Exception e);
+
+}
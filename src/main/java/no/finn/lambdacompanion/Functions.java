@@ -1,6 +1,10 @@
 package no.finn.lambdacompanion;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
 import java.util.function.BiFunction;
 
 @Deprecated
@@ -16,7 +20,8 @@ public final class Functions {
      * @param b b
      * @param list list
      * @return b
-     * Head recursive fold. Fold the list by combining the first element with the results of combining the rest
+     * Right fold. Fold the list by combining the first element with the results of combining the rest.
+     * Evaluated iteratively from the last element, so it runs in constant stack whatever the size of the list.
      * <p>
      * Example:
      * <pre>
@@ -30,7 +35,49 @@ public final class Functions {
      * </pre>
      */
     public static <A, B> B foldRight(final BiFunction<A, B, B> accumulator, final B b, final List<A> list) {
-        return list.isEmpty() ? b : accumulator.apply(head(list), foldRight(accumulator, b, tail(list)));
+        B result = b;
+        if (list instanceof RandomAccess) {
+            for (int i = list.size() - 1; i >= 0; i--) {
+                result = accumulator.apply(list.get(i), result);
+            }
+        } else {
+            final ListIterator<A> iterator = list.listIterator(list.size());
+            while (iterator.hasPrevious()) {
+                result = accumulator.apply(iterator.previous(), result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Right fold over any Iterable, see {@link #foldRight(BiFunction, Object, List)}.
+     * Iterables that are not lists are buffered into an array first, since they can only be walked forwards.
+     *
+     * @param <A> a
+     * @param <B> b
+     * @param accumulator accumulator
+     * @param b b
+     * @param iterable iterable
+     * @return b
+     */
+    @SuppressWarnings("unchecked")
+    public static <A, B> B foldRight(final BiFunction<A, B, B> accumulator, final B b, final Iterable<A> iterable) {
+        if (iterable instanceof List) {
+            return foldRight(accumulator, b, (List<A>) iterable);
+        }
+        final Object[] elements;
+        if (iterable instanceof Collection) {
+            elements = ((Collection<A>) iterable).toArray();
+        } else {
+            final List<A> buffer = new ArrayList<>();
+            iterable.forEach(buffer::add);
+            elements = buffer.toArray();
+        }
+        B result = b;
+        for (int i = elements.length - 1; i >= 0; i--) {
+            result = accumulator.apply((A) elements[i], result);
+        }
+        return result;
     }
 
     /**
@@ -40,7 +87,8 @@ public final class Functions {
      * @param b b
      * @param list list
      * @return b
-     * Tail recursive fold. Fold the list by recursively combining the results of combining all but the last element with the last one
+     * Left fold. Fold the list by combining the results of combining all but the last element with the last one.
+     * Evaluated iteratively from the first element, so it runs in constant stack whatever the size of the list.
      * <p>
      * Example:
      * <pre>
@@ -54,7 +102,32 @@ public final class Functions {
      * </pre>
      */
     public static <A, B> B foldLeft(final BiFunction<A, B, B> accumulator, final B b, final List<A> list) {
-        return list.isEmpty() ? b : foldLeft(accumulator, accumulator.apply(head(list), b), tail(list));
+        if (list instanceof RandomAccess) {
+            B result = b;
+            for (int i = 0, size = list.size(); i < size; i++) {
+                result = accumulator.apply(list.get(i), result);
+            }
+            return result;
+        }
+        return foldLeft(accumulator, b, (Iterable<A>) list);
+    }
+
+    /**
+     * Left fold over any Iterable, see {@link #foldLeft(BiFunction, Object, List)}.
+     *
+     * @param <A> a
+     * @param <B> b
+     * @param accumulator accumulator
+     * @param b b
+     * @param iterable iterable
+     * @return b
+     */
+    public static <A, B> B foldLeft(final BiFunction<A, B, B> accumulator, final B b, final Iterable<A> iterable) {
+        B result = b;
+        for (final A a : iterable) {
+            result = accumulator.apply(a, result);
+        }
+        return result;
     }
 
     /**
@@ -0,0 +1,369 @@
+package no.finn.lambdacompanion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hedged execution of a {@link ThrowingSupplier}, typically a remote call, to cut tail latency.
+ *
+ * The supplier is started on the executor. If it has not completed after the hedge delay, a backup attempt is started,
+ * and so on up to the maximum number of attempts. The first Success is returned and the other attempts are cancelled
+ * (interrupted). A Failure starts the next attempt right away; if every attempt fails, the first Failure is returned.
+ *
+ * The delay is either fixed, or learnt as a percentile of the latencies of the recent successful attempts, so that
+ * e.g. only the slowest 5% of calls get hedged. Attempts still running when a later one wins are sampled with the time
+ * they have run so far, so the slow calls that got hedged keep weighing on the percentile. Each call reports how many
+ * hedges it fired and which attempt won, and the Hedge keeps running totals of both, to weigh the p99 gained against
+ * the extra load.
+ *
+ * Calls block the calling thread until an attempt succeeds or all attempts have failed, see {@link AsyncTry} for
+ * non-blocking calls. An Error thrown by an attempt is rethrown to the caller, once the other attempts are cancelled.
+ * When the executor rejects a backup attempt, no more are started and the attempts already running are awaited.
+ */
+@Deprecated
+public final class Hedge {
+
+    private static final int WINDOW = 1024;
+
+    private static final int MIN_SAMPLES = 32;
+
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final Executor executor;
+
+    private final int maxAttempts;
+
+    private final double percentile;
+
+    private final AtomicLongArray latencies;
+
+    private final AtomicLong samples = new AtomicLong();
+
+    private volatile long delayNanos;
+
+    private final LongAdder calls = new LongAdder();
+
+    private final LongAdder hedgesFired = new LongAdder();
+
+    private final LongAdder hedgesWon = new LongAdder();
+
+    private Hedge(Executor executor, long delayNanos, int maxAttempts, double percentile) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("At least one attempt is needed, got " + maxAttempts);
+        }
+        this.executor = executor;
+        this.delayNanos = delayNanos;
+        this.maxAttempts = maxAttempts;
+        this.percentile = percentile;
+        this.latencies = percentile == 0 ? null : new AtomicLongArray(WINDOW);
+    }
+
+    /**
+     * @param executor executor running the attempts
+     * @param delay delay after which a backup attempt is started
+     * @param unit unit of the delay
+     * @param maxAttempts maximum number of attempts, including the first one
+     * @return a Hedge with a fixed delay
+     */
+    public static Hedge fixedDelay(Executor executor, long delay, TimeUnit unit, int maxAttempts) {
+        return new Hedge(executor, unit.toNanos(delay), maxAttempts, 0);
+    }
+
+    /**
+     * @param executor executor running the attempts
+     * @param percentile percentile of the latency of recent successful attempts used as delay, e.g. 0.95
+     * @param initialDelay delay used until enough latencies have been recorded
+     * @param unit unit of the initial delay
+     * @param maxAttempts maximum number of attempts, including the first one
+     * @return a Hedge with a delay adapting to the observed latencies
+     */
+    public static Hedge adaptiveDelay(Executor executor, double percentile, long initialDelay, TimeUnit unit, int maxAttempts) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 1 exclusive, got " + percentile);
+        }
+        return new Hedge(executor, unit.toNanos(initialDelay), maxAttempts, percentile);
+    }
+
+    /**
+     * @param supplier the supplier function
+     * @param <T> Type of the supplied object from the supplier function
+     * @return the first Success, or the first Failure if all attempts failed
+     */
+    public <T> Try<T> call(ThrowingSupplier<T, ? extends Exception> supplier) {
+        return callWithStats(supplier).getTry();
+    }
+
+    /**
+     * @param supplier the supplier function
+     * @param <T> Type of the supplied object from the supplier function
+     * @return the first Success, or the first Failure if all attempts failed, along with the stats of this call
+     */
+    public <T> Result<T> callWithStats(ThrowingSupplier<T, ? extends Exception> supplier) {
+        calls.increment();
+        final Call<T> call = new Call<>(supplier);
+        try {
+            return call.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return call.finish(new Failure<>(e), -1);
+        } finally {
+            call.cancel();
+        }
+    }
+
+    /**
+     * @return the current hedge delay in nanoseconds
+     */
+    public long getDelayNanos() {
+        return delayNanos;
+    }
+
+    /**
+     * @return the total number of calls
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * @return the total number of backup attempts started
+     */
+    public long getHedgesFired() {
+        return hedgesFired.sum();
+    }
+
+    /**
+     * @return the total number of calls won by a backup attempt
+     */
+    public long getHedgesWon() {
+        return hedgesWon.sum();
+    }
+
+    private void record(long latencyNanos) {
+        if (latencies == null) {
+            return;
+        }
+        final long count = samples.getAndIncrement();
+        latencies.set((int) (count & (WINDOW - 1)), latencyNanos);
+        if (count + 1 == MIN_SAMPLES || (count + 1) % RECOMPUTE_EVERY == 0) {
+            final int size = (int) Math.min(count + 1, WINDOW);
+            final long[] window = new long[size];
+            for (int i = 0; i < size; i++) {
+                window[i] = latencies.get(i);
+            }
+            Arrays.sort(window);
+            delayNanos = window[(int) Math.min(size - 1, Math.ceil(percentile * size) - 1)];
+        }
+    }
+
+    /**
+     * State of one hedged call
+     *
+     * @param <T> t
+     */
+    private final class Call<T> {
+
+        private final ThrowingSupplier<T, ? extends Exception> supplier;
+
+        private final BlockingQueue<Attempt<T>> completed = new LinkedBlockingQueue<>();
+
+        private final List<FutureTask<Void>> tasks = new ArrayList<>(maxAttempts);
+
+        private final long[] starts = new long[maxAttempts];
+
+        private int limit = maxAttempts;
+
+        private int pending;
+
+        private RejectedExecutionException rejected;
+
+        /**
+         * Set once the call is over, so that attempts interrupted by their cancellation are not taken for failures
+         */
+        private volatile boolean over;
+
+        Call(ThrowingSupplier<T, ? extends Exception> supplier) {
+            this.supplier = supplier;
+        }
+
+        Result<T> run() throws InterruptedException {
+            Try<T> firstFailure = null;
+            startNext();
+            while (pending > 0) {
+                final Attempt<T> attempt = tasks.size() < limit
+                        ? completed.poll(delayNanos, TimeUnit.NANOSECONDS)
+                        : completed.take();
+                if (attempt == null) {
+                    startNext();
+                    continue;
+                }
+                pending--;
+                if (attempt.error instanceof Error) {
+                    throw (Error) attempt.error;
+                }
+                if (attempt.error != null) {
+                    throw new CompletionException(attempt.error);
+                }
+                if (attempt.result instanceof Success) {
+                    record(attempt.latencyNanos);
+                    return finish(attempt.result, attempt.index);
+                }
+                if (firstFailure == null) {
+                    firstFailure = attempt.result;
+                }
+                startNext();
+            }
+            return finish(firstFailure != null ? firstFailure : new Failure<>(rejected), -1);
+        }
+
+        Result<T> finish(Try<T> result, int winner) {
+            over = true;
+            final long now = System.nanoTime();
+            for (int i = 0; i < tasks.size(); i++) {
+                final FutureTask<Void> task = tasks.get(i);
+                if (!task.isDone() && i < winner) {
+                    // censored latency of an attempt started before the winner: at least as slow as that so far
+                    record(now - starts[i]);
+                }
+                task.cancel(true);
+            }
+            final int hedges = Math.max(0, tasks.size() - 1);
+            hedgesFired.add(hedges);
+            if (winner > 0) {
+                hedgesWon.increment();
+            }
+            return new Result<>(result, hedges, winner);
+        }
+
+        void cancel() {
+            over = true;
+            for (FutureTask<Void> task : tasks) {
+                task.cancel(true);
+            }
+        }
+
+        /**
+         * Starts the next attempt, if any is left. Once the executor rejects an attempt, no more are started, and the
+         * attempts already running are still awaited.
+         */
+        private void startNext() {
+            if (tasks.size() >= limit) {
+                return;
+            }
+            final int index = tasks.size();
+            final FutureTask<Void> task = new FutureTask<>(() -> {
+                final long start = System.nanoTime();
+                try {
+                    final Try<T> result = attempt();
+                    if (result != null) {
+                        completed.add(new Attempt<>(index, result, null, System.nanoTime() - start));
+                    }
+                } catch (Throwable t) {
+                    completed.add(new Attempt<>(index, null, t, System.nanoTime() - start));
+                }
+            }, null);
+            starts[index] = System.nanoTime();
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                rejected = e;
+                limit = index;
+                return;
+            }
+            tasks.add(task);
+            pending++;
+        }
+
+        /**
+         * @return the Try of the supplier, or null if it failed once the call was over, e.g. interrupted by its
+         * cancellation, so no one is waiting for it
+         */
+        private Try<T> attempt() {
+            try {
+                return new Success<>(supplier.get());
+            } catch (Exception e) {
+                return over ? null : new Failure<>(e);
+            }
+        }
+
+    }
+
+    private static final class Attempt<T> {
+
+        private final int index;
+
+        private final Try<T> result;
+
+        private final Throwable error;
+
+        private final long latencyNanos;
+
+        Attempt(int index, Try<T> result, Throwable error, long latencyNanos) {
+            this.index = index;
+            this.result = result;
+            this.error = error;
+            this.latencyNanos = latencyNanos;
+        }
+
+    }
+
+    /**
+     * Outcome of a hedged call
+     *
+     * @param <T> t
+     */
+    public static final class Result<T> {
+
+        private final Try<T> result;
+
+        private final int hedgesFired;
+
+        private final int winnerIndex;
+
+        Result(Try<T> result, int hedgesFired, int winnerIndex) {
+            this.result = result;
+            this.hedgesFired = hedgesFired;
+            this.winnerIndex = winnerIndex;
+        }
+
+        public Try<T> getTry() {
+            return result;
+        }
+
+        /**
+         * @return the number of backup attempts started by this call
+         */
+        public int getHedgesFired() {
+            return hedgesFired;
+        }
+
+        /**
+         * @return the index of the attempt that succeeded, 0 being the first one, or -1 if all attempts failed
+         */
+        public int getWinnerIndex() {
+            return winnerIndex;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{" +
+                    "try=" + result +
+                    ", hedgesFired=" + hedgesFired +
+                    ", winnerIndex=" + winnerIndex +
+                    '}';
+        }
+
+    }
+
+}
@@ -0,0 +1,63 @@
+package no.finn.lambdacompanion;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator pairing each element of a source spliterator with its index in encounter order, as a primitive long.
+ * <p>
+ * SUBSIZED sources are split as usual, the suffix starting at the index following the prefix, so indices need no
+ * shared counter in parallel. Other sources are not split.
+ *
+ * @param <T> t
+ */
+final class IndexedSpliterator<T> implements Spliterator<LongObjPair<T>> {
+
+    private final Spliterator<T> source;
+
+    private long index;
+
+    IndexedSpliterator(final Spliterator<T> source) {
+        this(source, 0);
+    }
+
+    private IndexedSpliterator(final Spliterator<T> source, final long index) {
+        this.source = source;
+        this.index = index;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super LongObjPair<T>> action) {
+        return source.tryAdvance(t -> action.accept(new LongObjPair<>(index++, t)));
+    }
+
+    @Override
+    public void forEachRemaining(final Consumer<? super LongObjPair<T>> action) {
+        source.forEachRemaining(t -> action.accept(new LongObjPair<>(index++, t)));
+    }
+
+    @Override
+    public Spliterator<LongObjPair<T>> trySplit() {
+        if (!source.hasCharacteristics(SUBSIZED)) {
+            return null;
+        }
+        final Spliterator<T> prefix = source.trySplit();
+        if (prefix == null) {
+            return null;
+        }
+        final Spliterator<LongObjPair<T>> split = new IndexedSpliterator<>(prefix, index);
+        index += prefix.getExactSizeIfKnown();
+        return split;
+    }
+
+    @Override
+    public long estimateSize() {
+        return source.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics() & (ORDERED | SIZED | SUBSIZED | IMMUTABLE | CONCURRENT) | NONNULL;
+    }
+
+}
@@ -0,0 +1,53 @@
+package no.finn.lambdacompanion;
+
+import java.util.AbstractMap;
+import java.util.Map;
+
+/**
+ * Primitive specialisation of {@link Pair} holding two int values, without boxing them.
+ * Follows the same equals, hashCode and toMapEntry contract as a Pair of Integer.
+ */
+@Deprecated
+public final class IntPair {
+
+    private final int left;
+
+    private final int right;
+
+    public IntPair(final int left, final int right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    public int getLeft() {
+        return left;
+    }
+
+    public int getRight() {
+        return right;
+    }
+
+    public Map.Entry<Integer, Integer> toMapEntry() {
+        return new AbstractMap.SimpleEntry<>(left, right);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        final IntPair pair = (IntPair) o;
+
+        return left == pair.left && right == pair.right;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Integer.hashCode(left) + Integer.hashCode(right);
+    }
+
+}
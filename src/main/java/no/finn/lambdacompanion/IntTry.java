@@ -0,0 +1,355 @@
+package no.finn.lambdacompanion;
+
+import java.util.OptionalInt;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+/**
+ * Primitive specialisation of {@link Try} for int values, so numeric work does not box at every step.
+ *
+ * An IntTry is a Success holding a int, or a Failure holding an Exception. Use {@link Try#mapToInt} to enter it
+ * from a Try, and {@link #mapToObj(ThrowingIntFunction)} or {@link #toTry()} to get back to one.
+ */
+@Deprecated
+public abstract class IntTry {
+
+    IntTry() {
+    }
+
+    /**
+     * @see Try#map(ThrowingFunction)
+     * @param mapper Function from int to int with an Exception in the signature
+     * @return a new IntTry
+     */
+    public abstract IntTry map(ThrowingIntUnaryOperator<? extends Exception> mapper);
+
+    /**
+     * @see Try#flatMap(ThrowingFunction)
+     * @param mapper Function from int to IntTry with an Exception in the signature
+     * @return a new IntTry
+     */
+    public abstract IntTry flatMap(ThrowingIntFunction<? extends IntTry, ? extends Exception> mapper);
+
+    /**
+     * Applies a function on the value, going back to an object Try
+     * @param mapper Function from int to U with an Exception in the signature
+     * @param <U> Type of the return value of the function
+     * @return a new Try
+     */
+    public abstract <U> Try<U> mapToObj(ThrowingIntFunction<? extends U, ? extends Exception> mapper);
+
+    /**
+     * @return a LongTry holding the value widened to long, or the same Exception
+     */
+    public abstract LongTry asLongTry();
+
+    /**
+     * @return a DoubleTry holding the value widened to double, or the same Exception
+     */
+    public abstract DoubleTry asDoubleTry();
+
+    /**
+     * @see Try#orElse(Object)
+     * @param defaultValue default fallback value
+     * @return value
+     */
+    public abstract int orElse(int defaultValue);
+
+    /**
+     * @see Try#orElseGet(java.util.function.Supplier)
+     * @param defaultValue lazy default supplier of fallback value
+     * @return value
+     */
+    public abstract int orElseGet(IntSupplier defaultValue);
+
+    /**
+     * @see Try#recover(Function, Function)
+     * @param successFunc Function handling the Success case
+     * @param failureFunc Function handling the Failure case
+     * @return a int value
+     */
+    public abstract int recover(IntUnaryOperator successFunc, ToIntFunction<Exception> failureFunc);
+
+    /**
+     * @see Try#orElseThrow(Function)
+     * @param ExceptionMapper Function to transform the Exception if this is a Failure
+     * @param <X> any Exception
+     * @param <Y> any Exception
+     * @return Value or a transformed Exception
+     * @throws Y any Exception
+     */
+    public abstract <X extends Exception, Y extends Exception> int orElseThrow(Function<X, Y> ExceptionMapper) throws Y;
+
+    /**
+     * @see Try#orElseRethrow()
+     * @param <E> any Exception
+     * @return Value or a transformed Exception
+     * @throws E any Exception
+     */
+    public abstract <E extends Exception> int orElseRethrow() throws E;
+
+    /**
+     * @return an OptionalInt of the value if Success, an empty one if Failure
+     */
+    public abstract OptionalInt toOptional();
+
+    /**
+     * @return the boxed Try
+     */
+    public abstract Try<Integer> toTry();
+
+    /**
+     * Starting point to the IntTry structure. Create a try from a supplier of int that throws an Exception
+     * @param supplier The supplier function
+     * @return an IntTry
+     */
+    public static IntTry of(ThrowingIntSupplier<? extends Exception> supplier) {
+        try {
+            return new Success(supplier.getAsInt());
+        } catch (Exception e) {
+            return new Failure(e);
+        }
+    }
+
+    /**
+     * Starting point to the IntTry structure. Create a try from a function to int that throws an Exception
+     * and an argument to this function
+     * @param func Function to be attempted, e.g. Integer::parseInt
+     * @param v Argument for the function
+     * @param <V> Type of the function argument
+     * @return an IntTry
+     */
+    public static <V> IntTry of(ThrowingToIntFunction<V, ? extends Exception> func, V v) {
+        try {
+            return new Success(func.applyAsInt(v));
+        } catch (Exception e) {
+            return new Failure(e);
+        }
+    }
+
+    public static IntTry success(int value) {
+        return new Success(value);
+    }
+
+    public static IntTry failure(Exception exception) {
+        return new Failure(exception);
+    }
+
+    /**
+     * Wraps an exception already held by another failure without notifying the failure observer again
+     */
+    static IntTry rewrap(Exception exception) {
+        return new Failure(exception, false);
+    }
+
+    private static final class Success extends IntTry {
+
+        private final int value;
+
+        Success(final int value) {
+            this.value = value;
+        }
+
+        @Override
+        public IntTry map(ThrowingIntUnaryOperator<? extends Exception> mapper) {
+            try {
+                return new Success(mapper.applyAsInt(value));
+            } catch (Exception e) {
+                return new Failure(e);
+            }
+        }
+
+        @Override
+        public IntTry flatMap(ThrowingIntFunction<? extends IntTry, ? extends Exception> mapper) {
+            try {
+                return mapper.apply(value);
+            } catch (Exception e) {
+                return new Failure(e);
+            }
+        }
+
+        @Override
+        public <U> Try<U> mapToObj(ThrowingIntFunction<? extends U, ? extends Exception> mapper) {
+            try {
+                return new no.finn.lambdacompanion.Success<>(mapper.apply(value));
+            } catch (Exception e) {
+                return new no.finn.lambdacompanion.Failure<>(e);
+            }
+        }
+
+        @Override
+        public LongTry asLongTry() {
+            return LongTry.success(value);
+        }
+
+        @Override
+        public DoubleTry asDoubleTry() {
+            return DoubleTry.success(value);
+        }
+
+        @Override
+        public int orElse(int defaultValue) {
+            return value;
+        }
+
+        @Override
+        public int orElseGet(IntSupplier defaultValue) {
+            return value;
+        }
+
+        @Override
+        public int recover(IntUnaryOperator successFunc, ToIntFunction<Exception> failureFunc) {
+            return successFunc.applyAsInt(value);
+        }
+
+        @Override
+        public <X extends Exception, Y extends Exception> int orElseThrow(Function<X, Y> ExceptionMapper) throws Y {
+            return value;
+        }
+
+        @Override
+        public <E extends Exception> int orElseRethrow() throws E {
+            return value;
+        }
+
+        @Override
+        public OptionalInt toOptional() {
+            return OptionalInt.of(value);
+        }
+
+        @Override
+        public Try<Integer> toTry() {
+            return new no.finn.lambdacompanion.Success<>(value);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            return value == ((Success) o).value;
+        }
+
+        @Override
+        public int hashCode() {
+            return Integer.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return "IntSuccess{" +
+                    "value=" + value +
+                    '}';
+        }
+
+    }
+
+    private static final class Failure extends IntTry {
+
+        private final Exception e;
+
+        Failure(final Exception e) {
+            this(e, true);
+        }
+
+        Failure(final Exception e, final boolean observe) {
+            this.e = e;
+            if (observe) {
+                no.finn.lambdacompanion.Failure.observe(e);
+            }
+        }
+
+        @Override
+        public IntTry map(ThrowingIntUnaryOperator<? extends Exception> mapper) {
+            return this;
+        }
+
+        @Override
+        public IntTry flatMap(ThrowingIntFunction<? extends IntTry, ? extends Exception> mapper) {
+            return this;
+        }
+
+        @Override
+        public <U> Try<U> mapToObj(ThrowingIntFunction<? extends U, ? extends Exception> mapper) {
+            return no.finn.lambdacompanion.Failure.rewrap(e);
+        }
+
+        @Override
+        public LongTry asLongTry() {
+            return LongTry.rewrap(e);
+        }
+
+        @Override
+        public DoubleTry asDoubleTry() {
+            return DoubleTry.rewrap(e);
+        }
+
+        @Override
+        public int orElse(int defaultValue) {
+            return defaultValue;
+        }
+
+        @Override
+        public int orElseGet(IntSupplier defaultValue) {
+            return defaultValue.getAsInt();
+        }
+
+        @Override
+        public int recover(IntUnaryOperator successFunc, ToIntFunction<Exception> failureFunc) {
+            return failureFunc.applyAsInt(e);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <X extends Exception, Y extends Exception> int orElseThrow(Function<X, Y> ExceptionMapper) throws Y {
+            throw ExceptionMapper.apply((X) e);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <E extends Exception> int orElseRethrow() throws E {
+            throw (E) e;
+        }
+
+        @Override
+        public OptionalInt toOptional() {
+            return OptionalInt.empty();
+        }
+
+        @Override
+        public Try<Integer> toTry() {
+            return no.finn.lambdacompanion.Failure.rewrap(e);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Failure failure = (Failure) o;
+            return e != null ? e.equals(failure.e) : failure.e == null;
+        }
+
+        @Override
+        public int hashCode() {
+            return e != null ? e.hashCode() : 0;
+        }
+
+        @Override
+        public String toString() {
+            return "IntFailure{" +
+                    "e=" + e +
+                    '}';
+        }
+
+    }
+
+}
@@ -0,0 +1,294 @@
+package no.finn.lambdacompanion;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A deferred Try, created with {@link Try#defer(ThrowingSupplier)}.
+ *
+ * map, flatMap, filter and peek only record a step. Nothing runs until a terminal operation is called (recover,
+ * orElse, orElseGet, toOptional, toEither, toTry...), which runs the supplier and every recorded step in a single
+ * loop, with a single exception handler, and only allocates the resulting Success or Failure.
+ *
+ * Each step returns a new LazyTry, and leaves this one unchanged, so a LazyTry can be branched into several chains
+ * and reused. The recorded steps are shared: adding a step to the last LazyTry of a chain appends it in place, and
+ * only branching off an earlier one copies its steps.
+ *
+ * Each terminal operation runs the whole chain again, unless {@link #memoize()} has been called. Steps added after
+ * memoize start from the memoized result, so the chain up to it runs only once.
+ *
+ * @param <T> t
+ */
+@Deprecated
+public final class LazyTry<T> {
+
+    private static final byte MAP = 0;
+    private static final byte FLAT_MAP = 1;
+    private static final byte FILTER = 2;
+    private static final byte PEEK = 3;
+
+    private final ThrowingSupplier<?, ? extends Exception> supplier;
+
+    /**
+     * Memoized LazyTry the steps start from, instead of the supplier
+     */
+    private final LazyTry<?> source;
+
+    private final Steps steps;
+
+    private final int size;
+
+    private final boolean memoized;
+
+    private volatile Try<T> result;
+
+    LazyTry(ThrowingSupplier<T, ? extends Exception> supplier) {
+        this(supplier, null, new Steps(4), 0, false);
+    }
+
+    private LazyTry(ThrowingSupplier<?, ? extends Exception> supplier, LazyTry<?> source, Steps steps, int size,
+                    boolean memoized) {
+        this.supplier = supplier;
+        this.source = source;
+        this.steps = steps;
+        this.size = size;
+        this.memoized = memoized;
+    }
+
+    /**
+     * Records a function to apply on the value if all previous steps succeeded.
+     * @param mapper Function from T to U with an Exception in the signature
+     * @param <U> Type of the return value of the function
+     * @return a new LazyTry
+     */
+    public <U> LazyTry<U> map(ThrowingFunction<? super T, ? extends U, ? extends Exception> mapper) {
+        return add(MAP, mapper);
+    }
+
+    /**
+     * Records a function ending in a Try to apply on the value if all previous steps succeeded.
+     * @param mapper Function from T to Try&lt;U&gt; with an Exception in the signature
+     * @param <U> Type of the value to be wrapped in a Try of the function
+     * @return a new LazyTry
+     */
+    public <U> LazyTry<U> flatMap(ThrowingFunction<? super T, ? extends Try<U>, ? extends Exception> mapper) {
+        return add(FLAT_MAP, mapper);
+    }
+
+    /**
+     * Records a predicate the value must match. If it does not, the result is a Failure holding a
+     * NoSuchElementException.
+     * @param predicate Predicate function to determine Success or Failure
+     * @return a new LazyTry
+     */
+    public LazyTry<T> filter(Predicate<? super T> predicate) {
+        return add(FILTER, predicate);
+    }
+
+    /**
+     * Records a consuming function to apply on the value if all previous steps succeeded. An Exception thrown by the
+     * consumer turns the result into a Failure.
+     * @param consumer Consuming function with an Exception in the signature
+     * @return a new LazyTry
+     */
+    public LazyTry<T> peek(ThrowingConsumer<? super T, ? extends Exception> consumer) {
+        return add(PEEK, consumer);
+    }
+
+    /**
+     * Keeps the result of the first evaluation, so later terminal operations do not run the chain again, even when
+     * called concurrently. The LazyTrys built from the returned one by adding steps start from its result, and
+     * memoize their own results too.
+     * @return a new LazyTry memoizing its result, or this one if it already does
+     */
+    public LazyTry<T> memoize() {
+        return memoized ? this : new LazyTry<>(supplier, source, steps, size, true);
+    }
+
+    /**
+     * Runs the chain.
+     * @return the resulting Success or Failure
+     */
+    public Try<T> toTry() {
+        Try<T> t = result;
+        if (t != null) {
+            return t;
+        }
+        if (!memoized) {
+            return evaluate();
+        }
+        synchronized (this) {
+            t = result;
+            if (t == null) {
+                t = evaluate();
+                result = t;
+            }
+        }
+        return t;
+    }
+
+    /**
+     * Runs the chain, see {@link Try#recover(Function, Function)}
+     * @param successFunc Function handling the Success case
+     * @param failureFunc Function handling the Failure case
+     * @param <U> Type of the value
+     * @return a value of type U
+     */
+    public <U> U recover(Function<? super T, ? extends U> successFunc,
+                         Function<Exception, ? extends U> failureFunc) {
+        return toTry().recover(successFunc, failureFunc);
+    }
+
+    /**
+     * Runs the chain, see {@link Try#orElse(Object)}
+     * @param defaultValue default fallback value
+     * @return value
+     */
+    public T orElse(T defaultValue) {
+        return toTry().orElse(defaultValue);
+    }
+
+    /**
+     * Runs the chain, see {@link Try#orElseGet(Supplier)}
+     * @param defaultValue lazy default supplier of fallback value
+     * @return value
+     */
+    public T orElseGet(Supplier<? extends T> defaultValue) {
+        return toTry().orElseGet(defaultValue);
+    }
+
+    /**
+     * Runs the chain, see {@link Try#orElseThrow(Function)}
+     * @param ExceptionMapper Function to transform the Exception if this is a Failure
+     * @param <X> any Exception
+     * @param <Y> any Exception
+     * @return Value or a transformed Exception
+     * @throws Y any Exception
+     */
+    public <X extends Exception, Y extends Exception> T orElseThrow(Function<X, Y> ExceptionMapper) throws Y {
+        return toTry().orElseThrow(ExceptionMapper);
+    }
+
+    /**
+     * Runs the chain, see {@link Try#orElseRethrow()}
+     * @param <E> any Exception
+     * @return Value or a transformed Exception
+     * @throws E any Exception
+     */
+    public <E extends Exception> T orElseRethrow() throws E {
+        return toTry().orElseRethrow();
+    }
+
+    /**
+     * Runs the chain, see {@link Try#toOptional()}
+     * @return An Optional
+     */
+    public Optional<T> toOptional() {
+        return toTry().toOptional();
+    }
+
+    /**
+     * Runs the chain, see {@link Try#toEither()}
+     * @param <X> Exception
+     * @return an Either
+     */
+    public <X extends Exception> Either<X, T> toEither() {
+        return toTry().toEither();
+    }
+
+    @Override
+    public String toString() {
+        return "LazyTry{" +
+                "steps=" + size +
+                ", result=" + result +
+                '}';
+    }
+
+    private <U> LazyTry<U> add(byte kind, Object step) {
+        if (memoized) {
+            // starts a new chain from the memoized result
+            return new LazyTry<>(null, this, new Steps(4).append(0, kind, step), 1, true);
+        }
+        return new LazyTry<>(supplier, source, steps.append(size, kind, step), size + 1, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Try<T> evaluate() {
+        try {
+            Object value;
+            if (source != null) {
+                final Try<?> t = source.toTry();
+                if (!(t instanceof Success)) {
+                    return (Try<T>) t;
+                }
+                value = ((Success<?>) t).get();
+            } else {
+                value = supplier.get();
+            }
+            final Object[] functions = steps.functions;
+            final byte[] kinds = steps.kinds;
+            for (int i = 0; i < size; i++) {
+                final Object step = functions[i];
+                switch (kinds[i]) {
+                    case MAP:
+                        value = ((ThrowingFunction<Object, Object, ?>) step).apply(value);
+                        break;
+                    case FLAT_MAP:
+                        final Try<Object> t = ((ThrowingFunction<Object, Try<Object>, ?>) step).apply(value);
+                        if (!(t instanceof Success)) {
+                            return (Try<T>) t;
+                        }
+                        value = ((Success<Object>) t).get();
+                        break;
+                    case FILTER:
+                        if (!((Predicate<Object>) step).test(value)) {
+                            return new Failure<>(new NoSuchElementException("Predicate does not hold for " + value));
+                        }
+                        break;
+                    default:
+                        ((ThrowingConsumer<Object, ?>) step).accept(value);
+                }
+            }
+            return new Success<>((T) value);
+        } catch (Exception e) {
+            return new Failure<>(e);
+        }
+    }
+
+    /**
+     * Steps shared by the LazyTrys of a chain. A LazyTry only reads the first size slots, which never change once
+     * written: the next slot is claimed by the first LazyTry appending to it, and any other gets a copy of its prefix.
+     */
+    private static final class Steps {
+
+        private final Object[] functions;
+
+        private final byte[] kinds;
+
+        private int used;
+
+        Steps(int capacity) {
+            this.functions = new Object[capacity];
+            this.kinds = new byte[capacity];
+        }
+
+        synchronized Steps append(int size, byte kind, Object step) {
+            if (used == size && size < functions.length) {
+                functions[size] = step;
+                kinds[size] = kind;
+                used++;
+                return this;
+            }
+            final Steps copy = new Steps(Math.max(4, size * 2));
+            System.arraycopy(functions, 0, copy.functions, 0, size);
+            System.arraycopy(kinds, 0, copy.kinds, 0, size);
+            copy.used = size;
+            return copy.append(size, kind, step);
+        }
+
+    }
+
+}
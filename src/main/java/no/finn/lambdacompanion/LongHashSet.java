@@ -0,0 +1,134 @@
+package no.finn.lambdacompanion;
+
+/**
+ * Set of primitive longs, stored with open addressing and linear probing in long[] tables, without boxing: about
+ * 16 to 32 bytes per key, where a HashSet of Longs takes about 60.
+ * <p>
+ * Only adding is supported, which is all an exact distinct needs. The keys are spread over stripes by hash, each
+ * stripe being a table of its own with its own lock, so the splits of a parallel stream rarely contend. Tables are
+ * sized up front for the expected number of keys, and only grow if more keys are added.
+ */
+final class LongHashSet {
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * Keys per stripe, beyond which an extra stripe is used rather than a larger table
+     */
+    private static final long KEYS_PER_STRIPE = MAX_CAPACITY / 4;
+
+    private final Stripe[] stripes;
+
+    private final int stripeShift;
+
+    /**
+     * @param expectedSize number of keys the set holds without resizing
+     * @param concurrency number of threads expected to add keys at once
+     */
+    LongHashSet(final long expectedSize, final int concurrency) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative, got " + expectedSize);
+        }
+        int count = 1;
+        while (count < concurrency * 4 || (long) count * KEYS_PER_STRIPE < expectedSize) {
+            count <<= 1;
+        }
+        stripes = new Stripe[count];
+        final int perStripe = (int) ((expectedSize + count - 1) / count);
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        stripeShift = 64 - Integer.numberOfTrailingZeros(count);
+    }
+
+    /**
+     * @param key key
+     * @return true if the key was not in the set yet
+     * @throws IllegalStateException if the stripe of the key is full, far beyond the expected size
+     */
+    boolean add(final long key) {
+        final long hash = BloomFilter.mix(key);
+        final Stripe stripe = stripes.length == 1 ? stripes[0] : stripes[(int) (hash >>> stripeShift)];
+        return stripe.add(key, hash);
+    }
+
+    long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private static final class Stripe {
+
+        private long[] keys;
+
+        private int size;
+
+        private boolean containsZero;
+
+        Stripe(final int expectedSize) {
+            keys = new long[capacityFor(expectedSize)];
+        }
+
+        synchronized boolean add(final long key, final long hash) {
+            if (key == 0) {
+                // zero marks the free slots, so it is kept aside
+                if (containsZero) {
+                    return false;
+                }
+                containsZero = true;
+                return true;
+            }
+            if (!insert(keys, key, hash)) {
+                return false;
+            }
+            if (++size > keys.length / 2) {
+                grow();
+            }
+            return true;
+        }
+
+        synchronized long size() {
+            return containsZero ? size + 1 : size;
+        }
+
+        private void grow() {
+            if (keys.length == MAX_CAPACITY) {
+                throw new IllegalStateException("LongHashSet stripe cannot hold more than " + MAX_CAPACITY / 2
+                                                        + " keys, give a larger expected size");
+            }
+            final long[] grown = new long[keys.length * 2];
+            for (long key : keys) {
+                if (key != 0) {
+                    insert(grown, key, BloomFilter.mix(key));
+                }
+            }
+            keys = grown;
+        }
+
+        private static boolean insert(final long[] table, final long key, final long hash) {
+            final int mask = table.length - 1;
+            int i = (int) hash & mask;
+            while (table[i] != 0) {
+                if (table[i] == key) {
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            table[i] = key;
+            return true;
+        }
+
+        private static int capacityFor(final int expectedSize) {
+            int capacity = 16;
+            while (capacity / 2 < expectedSize && capacity < MAX_CAPACITY) {
+                capacity <<= 1;
+            }
+            return capacity;
+        }
+
+    }
+
+}
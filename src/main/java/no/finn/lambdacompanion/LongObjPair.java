@@ -0,0 +1,62 @@
+package no.finn.lambdacompanion;
+
+import java.util.AbstractMap;
+import java.util.Map;
+
+/**
+ * Specialisation of {@link Pair} holding a long on the left side, without boxing it.
+ * Follows the same equals, hashCode and toMapEntry contract as a Pair of Long and R.
+ *
+ * @param <R> type of the right side
+ */
+@Deprecated
+public final class LongObjPair<R> {
+
+    private final long left;
+
+    private final R right;
+
+    public LongObjPair(final long left, final R right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    public long getLeft() {
+        return left;
+    }
+
+    public R getRight() {
+        return right;
+    }
+
+    public Map.Entry<Long, R> toMapEntry() {
+        return new AbstractMap.SimpleEntry<>(left, right);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        final LongObjPair pair = (LongObjPair) o;
+
+        if (left != pair.left) {
+            return false;
+        }
+        if (right != null ? !right.equals(pair.right) : pair.right != null) {
+            return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(left) + (right != null ? right.hashCode() : 0);
+    }
+
+}
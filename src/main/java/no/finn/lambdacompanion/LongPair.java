@@ -0,0 +1,53 @@
+package no.finn.lambdacompanion;
+
+import java.util.AbstractMap;
+import java.util.Map;
+
+/**
+ * Primitive specialisation of {@link Pair} holding two long values, without boxing them.
+ * Follows the same equals, hashCode and toMapEntry contract as a Pair of Long.
+ */
+@Deprecated
+public final class LongPair {
+
+    private final long left;
+
+    private final long right;
+
+    public LongPair(final long left, final long right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    public long getLeft() {
+        return left;
+    }
+
+    public long getRight() {
+        return right;
+    }
+
+    public Map.Entry<Long, Long> toMapEntry() {
+        return new AbstractMap.SimpleEntry<>(left, right);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        final LongPair pair = (LongPair) o;
+
+        return left == pair.left && right == pair.right;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(left) + Long.hashCode(right);
+    }
+
+}
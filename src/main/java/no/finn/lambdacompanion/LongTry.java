@@ -0,0 +1,340 @@
+package no.finn.lambdacompanion;
+
+import java.util.OptionalLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ToLongFunction;
+
+/**
+ * Primitive specialisation of {@link Try} for long values, so numeric work does not box at every step.
+ *
+ * A LongTry is a Success holding a long, or a Failure holding an Exception. Use {@link Try#mapToLong} to enter it
+ * from a Try, and {@link #mapToObj(ThrowingLongFunction)} or {@link #toTry()} to get back to one.
+ */
+@Deprecated
+public abstract class LongTry {
+
+    LongTry() {
+    }
+
+    /**
+     * @see Try#map(ThrowingFunction)
+     * @param mapper Function from long to long with an Exception in the signature
+     * @return a new LongTry
+     */
+    public abstract LongTry map(ThrowingLongUnaryOperator<? extends Exception> mapper);
+
+    /**
+     * @see Try#flatMap(ThrowingFunction)
+     * @param mapper Function from long to LongTry with an Exception in the signature
+     * @return a new LongTry
+     */
+    public abstract LongTry flatMap(ThrowingLongFunction<? extends LongTry, ? extends Exception> mapper);
+
+    /**
+     * Applies a function on the value, going back to an object Try
+     * @param mapper Function from long to U with an Exception in the signature
+     * @param <U> Type of the return value of the function
+     * @return a new Try
+     */
+    public abstract <U> Try<U> mapToObj(ThrowingLongFunction<? extends U, ? extends Exception> mapper);
+
+    /**
+     * @return a DoubleTry holding the value widened to double, or the same Exception
+     */
+    public abstract DoubleTry asDoubleTry();
+
+    /**
+     * @see Try#orElse(Object)
+     * @param defaultValue default fallback value
+     * @return value
+     */
+    public abstract long orElse(long defaultValue);
+
+    /**
+     * @see Try#orElseGet(java.util.function.Supplier)
+     * @param defaultValue lazy default supplier of fallback value
+     * @return value
+     */
+    public abstract long orElseGet(LongSupplier defaultValue);
+
+    /**
+     * @see Try#recover(Function, Function)
+     * @param successFunc Function handling the Success case
+     * @param failureFunc Function handling the Failure case
+     * @return a long value
+     */
+    public abstract long recover(LongUnaryOperator successFunc, ToLongFunction<Exception> failureFunc);
+
+    /**
+     * @see Try#orElseThrow(Function)
+     * @param ExceptionMapper Function to transform the Exception if this is a Failure
+     * @param <X> any Exception
+     * @param <Y> any Exception
+     * @return Value or a transformed Exception
+     * @throws Y any Exception
+     */
+    public abstract <X extends Exception, Y extends Exception> long orElseThrow(Function<X, Y> ExceptionMapper) throws Y;
+
+    /**
+     * @see Try#orElseRethrow()
+     * @param <E> any Exception
+     * @return Value or a transformed Exception
+     * @throws E any Exception
+     */
+    public abstract <E extends Exception> long orElseRethrow() throws E;
+
+    /**
+     * @return an OptionalLong of the value if Success, an empty one if Failure
+     */
+    public abstract OptionalLong toOptional();
+
+    /**
+     * @return the boxed Try
+     */
+    public abstract Try<Long> toTry();
+
+    /**
+     * Starting point to the LongTry structure. Create a try from a supplier of long that throws an Exception
+     * @param supplier The supplier function
+     * @return a LongTry
+     */
+    public static LongTry of(ThrowingLongSupplier<? extends Exception> supplier) {
+        try {
+            return new Success(supplier.getAsLong());
+        } catch (Exception e) {
+            return new Failure(e);
+        }
+    }
+
+    /**
+     * Starting point to the LongTry structure. Create a try from a function to long that throws an Exception
+     * and an argument to this function
+     * @param func Function to be attempted, e.g. Long::parseLong
+     * @param v Argument for the function
+     * @param <V> Type of the function argument
+     * @return a LongTry
+     */
+    public static <V> LongTry of(ThrowingToLongFunction<V, ? extends Exception> func, V v) {
+        try {
+            return new Success(func.applyAsLong(v));
+        } catch (Exception e) {
+            return new Failure(e);
+        }
+    }
+
+    public static LongTry success(long value) {
+        return new Success(value);
+    }
+
+    public static LongTry failure(Exception exception) {
+        return new Failure(exception);
+    }
+
+    /**
+     * Wraps an exception already held by another failure without notifying the failure observer again
+     */
+    static LongTry rewrap(Exception exception) {
+        return new Failure(exception, false);
+    }
+
+    private static final class Success extends LongTry {
+
+        private final long value;
+
+        Success(final long value) {
+            this.value = value;
+        }
+
+        @Override
+        public LongTry map(ThrowingLongUnaryOperator<? extends Exception> mapper) {
+            try {
+                return new Success(mapper.applyAsLong(value));
+            } catch (Exception e) {
+                return new Failure(e);
+            }
+        }
+
+        @Override
+        public LongTry flatMap(ThrowingLongFunction<? extends LongTry, ? extends Exception> mapper) {
+            try {
+                return mapper.apply(value);
+            } catch (Exception e) {
+                return new Failure(e);
+            }
+        }
+
+        @Override
+        public <U> Try<U> mapToObj(ThrowingLongFunction<? extends U, ? extends Exception> mapper) {
+            try {
+                return new no.finn.lambdacompanion.Success<>(mapper.apply(value));
+            } catch (Exception e) {
+                return new no.finn.lambdacompanion.Failure<>(e);
+            }
+        }
+
+        @Override
+        public DoubleTry asDoubleTry() {
+            return DoubleTry.success(value);
+        }
+
+        @Override
+        public long orElse(long defaultValue) {
+            return value;
+        }
+
+        @Override
+        public long orElseGet(LongSupplier defaultValue) {
+            return value;
+        }
+
+        @Override
+        public long recover(LongUnaryOperator successFunc, ToLongFunction<Exception> failureFunc) {
+            return successFunc.applyAsLong(value);
+        }
+
+        @Override
+        public <X extends Exception, Y extends Exception> long orElseThrow(Function<X, Y> ExceptionMapper) throws Y {
+            return value;
+        }
+
+        @Override
+        public <E extends Exception> long orElseRethrow() throws E {
+            return value;
+        }
+
+        @Override
+        public OptionalLong toOptional() {
+            return OptionalLong.of(value);
+        }
+
+        @Override
+        public Try<Long> toTry() {
+            return new no.finn.lambdacompanion.Success<>(value);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            return value == ((Success) o).value;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return "LongSuccess{" +
+                    "value=" + value +
+                    '}';
+        }
+
+    }
+
+    private static final class Failure extends LongTry {
+
+        private final Exception e;
+
+        Failure(final Exception e) {
+            this(e, true);
+        }
+
+        Failure(final Exception e, final boolean observe) {
+            this.e = e;
+            if (observe) {
+                no.finn.lambdacompanion.Failure.observe(e);
+            }
+        }
+
+        @Override
+        public LongTry map(ThrowingLongUnaryOperator<? extends Exception> mapper) {
+            return this;
+        }
+
+        @Override
+        public LongTry flatMap(ThrowingLongFunction<? extends LongTry, ? extends Exception> mapper) {
+            return this;
+        }
+
+        @Override
+        public <U> Try<U> mapToObj(ThrowingLongFunction<? extends U, ? extends Exception> mapper) {
+            return no.finn.lambdacompanion.Failure.rewrap(e);
+        }
+
+        @Override
+        public DoubleTry asDoubleTry() {
+            return DoubleTry.rewrap(e);
+        }
+
+        @Override
+        public long orElse(long defaultValue) {
+            return defaultValue;
+        }
+
+        @Override
+        public long orElseGet(LongSupplier defaultValue) {
+            return defaultValue.getAsLong();
+        }
+
+        @Override
+        public long recover(LongUnaryOperator successFunc, ToLongFunction<Exception> failureFunc) {
+            return failureFunc.applyAsLong(e);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <X extends Exception, Y extends Exception> long orElseThrow(Function<X, Y> ExceptionMapper) throws Y {
+            throw ExceptionMapper.apply((X) e);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <E extends Exception> long orElseRethrow() throws E {
+            throw (E) e;
+        }
+
+        @Override
+        public OptionalLong toOptional() {
+            return OptionalLong.empty();
+        }
+
+        @Override
+        public Try<Long> toTry() {
+            return no.finn.lambdacompanion.Failure.rewrap(e);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Failure failure = (Failure) o;
+            return e != null ? e.equals(failure.e) : failure.e == null;
+        }
+
+        @Override
+        public int hashCode() {
+            return e != null ? e.hashCode() : 0;
+        }
+
+        @Override
+        public String toString() {
+            return "LongFailure{" +
+                    "e=" + e +
+                    '}';
+        }
+
+    }
+
+}
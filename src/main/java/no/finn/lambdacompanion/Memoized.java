@@ -0,0 +1,387 @@
+package no.finn.lambdacompanion;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memoizing wrapper around a {@link ThrowingFunction}, caching the resulting {@link Try} of each call by argument.
+ * <p>
+ * The cache is bounded: once it holds more than maxSize entries, one that has not been used recently is evicted. Hits
+ * take no lock and only stamp the entry with the time of use; eviction goes through the entries in the order they
+ * were cached and gives those used since another chance, so the evicted entry is the least recently used one, or
+ * close to it under concurrent use.
+ * <p>
+ * Entries can expire after a time to live, and Failures can be given a shorter one than Successes, so a failing
+ * lookup is retried sooner without hammering the backend on every call (negative caching).
+ * <p>
+ * Loading is single-flight: when several threads miss on the same key at once, the function is run once, by the
+ * first of them, and the others wait for its result. Other keys are not blocked while a value is loading, and only
+ * misses and expired entries lock, and only the bin of their key.
+ * <p>
+ * Hits, misses and evictions are counted, see {@link #getHits()}, {@link #getMisses()} and {@link #getEvictions()}.
+ * Keys must not be null, as the entries are held in a ConcurrentHashMap.
+ * <pre>
+ * {@code
+ *     Memoized<Long, User> users = Memoized.of(userService::lookup, 10_000, 10, 1, TimeUnit.MINUTES);
+ *     Try<User> user = users.apply(42L);
+ * }
+ * </pre>
+ *
+ * @param <K> type of the argument of the function
+ * @param <R> type of the result of the function
+ */
+@Deprecated
+public final class Memoized<K, R> {
+
+    private static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    private final ThrowingFunction<? super K, ? extends R, ? extends Exception> func;
+
+    private final int maxSize;
+
+    private final long ttlNanos;
+
+    private final long failureTtlNanos;
+
+    private final ConcurrentHashMap<K, Node<K, R>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Cached nodes in the order they were cached or given another chance, guarded by itself for eviction
+     */
+    private final ConcurrentLinkedQueue<Node<K, R>> recency = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Approximate number of removed nodes still in the recency queue
+     */
+    private final AtomicInteger removedQueued = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private Memoized(ThrowingFunction<? super K, ? extends R, ? extends Exception> func, int maxSize,
+                     long ttlNanos, long failureTtlNanos) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be positive, got " + maxSize);
+        }
+        if (ttlNanos <= 0 || failureTtlNanos <= 0) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        this.func = func;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlNanos;
+        this.failureTtlNanos = failureTtlNanos;
+    }
+
+    /**
+     * @param func function to memoize
+     * @param maxSize maximum number of cached results
+     * @param <T> type of the argument of the function
+     * @param <U> type of the result of the function
+     * @return a Memoized function whose results never expire, but may be evicted
+     */
+    public static <T, U> Memoized<T, U> of(ThrowingFunction<? super T, ? extends U, ? extends Exception> func,
+                                           int maxSize) {
+        return new Memoized<>(func, maxSize, NO_EXPIRY, NO_EXPIRY);
+    }
+
+    /**
+     * @param func function to memoize
+     * @param maxSize maximum number of cached results
+     * @param ttl time to live of a Success
+     * @param failureTtl time to live of a Failure
+     * @param unit unit of both times to live
+     * @param <T> type of the argument of the function
+     * @param <U> type of the result of the function
+     * @return a Memoized function whose results expire
+     */
+    public static <T, U> Memoized<T, U> of(ThrowingFunction<? super T, ? extends U, ? extends Exception> func,
+                                           int maxSize, long ttl, long failureTtl, TimeUnit unit) {
+        return new Memoized<>(func, maxSize, unit.toNanos(ttl), unit.toNanos(failureTtl));
+    }
+
+    /**
+     * @param func function to memoize, cached by pair of arguments
+     * @param maxSize maximum number of cached results
+     * @param <T> type of the first argument of the function
+     * @param <U> type of the second argument of the function
+     * @param <V> type of the result of the function
+     * @return a Memoized function whose results never expire, but may be evicted
+     */
+    public static <T, U, V> Bi<T, U, V> of(ThrowingBiFunction<? super T, ? super U, ? extends V, ? extends Exception> func,
+                                           int maxSize) {
+        return new Bi<>(of(pair -> func.apply(pair.getLeft(), pair.getRight()), maxSize));
+    }
+
+    /**
+     * @param func function to memoize, cached by pair of arguments
+     * @param maxSize maximum number of cached results
+     * @param ttl time to live of a Success
+     * @param failureTtl time to live of a Failure
+     * @param unit unit of both times to live
+     * @param <T> type of the first argument of the function
+     * @param <U> type of the second argument of the function
+     * @param <V> type of the result of the function
+     * @return a Memoized function whose results expire
+     */
+    public static <T, U, V> Bi<T, U, V> of(ThrowingBiFunction<? super T, ? super U, ? extends V, ? extends Exception> func,
+                                           int maxSize, long ttl, long failureTtl, TimeUnit unit) {
+        return new Bi<>(of(pair -> func.apply(pair.getLeft(), pair.getRight()), maxSize, ttl, failureTtl, unit));
+    }
+
+    /**
+     * Returns the cached result for the key, or runs the function and caches its result. If the calling thread is
+     * interrupted while waiting for another thread loading the same key, a Failure holding an InterruptedException
+     * is returned and the interrupt flag is restored.
+     *
+     * @param key argument of the function
+     * @return the Try resulting from the function
+     * @throws NullPointerException if the key is null
+     */
+    public Try<R> apply(K key) {
+        final long now = System.nanoTime();
+        final Node<K, R> cached = entries.get(key);
+        if (cached != null) {
+            final Entry<R> entry = cached.entry;
+            if (!entry.isExpired(now)) {
+                cached.lastAccess = now;
+                hits.increment();
+                return entry.get();
+            }
+        }
+        final Entry<R> loading = new Entry<>(new FutureTask<>(() -> Try.<R, K>of(func::apply, key)));
+        final Node<K, R> created = new Node<>(key, loading, now);
+        final Node<K, R> node = entries.compute(key, (k, existing) -> {
+            if (existing == null) {
+                return created;
+            }
+            if (existing.entry.isExpired(now)) {
+                existing.entry = loading;
+            }
+            return existing;
+        });
+        node.lastAccess = now;
+        if (node == created) {
+            recency.add(created);
+            if (entries.size() > maxSize) {
+                evict();
+            }
+        } else if (node.entry != loading) {
+            // waits outside of the bin lock when another thread is still loading the key
+            hits.increment();
+            return node.entry.get();
+        }
+        misses.increment();
+        loading.load.run();
+        final Try<R> result;
+        try {
+            result = loading.get();
+        } catch (Error e) {
+            remove(node);
+            throw e;
+        }
+        final long ttl = result instanceof Success ? ttlNanos : failureTtlNanos;
+        loading.expiresAt = ttl == NO_EXPIRY ? NO_EXPIRY : System.nanoTime() + ttl;
+        return result;
+    }
+
+    /**
+     * @param key argument of the function
+     * @throws NullPointerException if the key is null
+     */
+    public void invalidate(K key) {
+        final Node<K, R> node = entries.remove(key);
+        if (node != null) {
+            dequeue(node);
+        }
+    }
+
+    public void invalidateAll() {
+        for (Node<K, R> node : entries.values()) {
+            remove(node);
+        }
+    }
+
+    /**
+     * Removes expired entries. They are otherwise only removed when looked up or evicted.
+     */
+    public void cleanUp() {
+        final long now = System.nanoTime();
+        for (Node<K, R> node : entries.values()) {
+            if (node.entry.isExpired(now)) {
+                remove(node);
+            }
+        }
+    }
+
+    private void remove(Node<K, R> node) {
+        if (entries.remove(node.key, node)) {
+            dequeue(node);
+        }
+    }
+
+    private void dequeue(Node<K, R> node) {
+        node.removed = true;
+        if (removedQueued.incrementAndGet() > maxSize) {
+            synchronized (recency) {
+                recency.removeIf(n -> n.removed);
+                removedQueued.set(0);
+            }
+        }
+    }
+
+    private void evict() {
+        synchronized (recency) {
+            while (entries.size() > maxSize) {
+                final Node<K, R> eldest = recency.poll();
+                if (eldest == null) {
+                    return;
+                }
+                if (eldest.removed) {
+                    continue;
+                }
+                final long accessed = eldest.lastAccess;
+                if (accessed != eldest.queuedAt) {
+                    // used since it was queued: another chance, behind the others
+                    eldest.queuedAt = accessed;
+                    recency.add(eldest);
+                } else if (entries.remove(eldest.key, eldest)) {
+                    eldest.removed = true;
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of cached entries, including expired ones that have not been removed yet
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "Memoized{" +
+                "size=" + size() +
+                ", hits=" + getHits() +
+                ", misses=" + getMisses() +
+                ", evictions=" + getEvictions() +
+                '}';
+    }
+
+    private static final class Node<K, R> {
+
+        private final K key;
+
+        private volatile Entry<R> entry;
+
+        private volatile long lastAccess;
+
+        /**
+         * Time of use when last queued, guarded by the recency queue
+         */
+        private long queuedAt;
+
+        private volatile boolean removed;
+
+        Node(K key, Entry<R> entry, long now) {
+            this.key = key;
+            this.entry = entry;
+            this.lastAccess = now;
+            this.queuedAt = now;
+        }
+
+    }
+
+    private static final class Entry<R> {
+
+        private final FutureTask<Try<R>> load;
+
+        private volatile long expiresAt = NO_EXPIRY;
+
+        Entry(FutureTask<Try<R>> load) {
+            this.load = load;
+        }
+
+        boolean isExpired(long now) {
+            final long expiry = expiresAt;
+            return expiry != NO_EXPIRY && now - expiry >= 0;
+        }
+
+        Try<R> get() {
+            try {
+                return load.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Failure<>(e);
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                return new Failure<>((Exception) cause);
+            }
+        }
+
+    }
+
+    /**
+     * Memoized function of two arguments, cached by {@link Pair} of arguments
+     *
+     * @param <T> type of the first argument of the function
+     * @param <U> type of the second argument of the function
+     * @param <V> type of the result of the function
+     */
+    public static final class Bi<T, U, V> {
+
+        private final Memoized<Pair<T, U>, V> memoized;
+
+        private Bi(Memoized<Pair<T, U>, V> memoized) {
+            this.memoized = memoized;
+        }
+
+        /**
+         * @see Memoized#apply(Object)
+         * @param t first argument of the function
+         * @param u second argument of the function
+         * @return the Try resulting from the function
+         */
+        public Try<V> apply(T t, U u) {
+            return memoized.apply(new Pair<>(t, u));
+        }
+
+        /**
+         * @return the underlying cache, keyed by pair of arguments, for invalidation and counters
+         */
+        public Memoized<Pair<T, U>, V> cache() {
+            return memoized;
+        }
+
+        @Override
+        public String toString() {
+            return memoized.toString();
+        }
+
+    }
+
+}
@@ -0,0 +1,156 @@
+package no.finn.lambdacompanion;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator counting the elements pulled from a source spliterator into a {@link StageMeter}, timing the first
+ * element of each split and one out of {@link StageMeter#SAMPLING_INTERVAL} after it, and counting the exceptions
+ * thrown by the source. Nothing but a local counter is updated for the other elements.
+ * Splits share the meter, and each counts locally, adding its counts to the meter once it is exhausted, or when the
+ * pipeline publishes its meters.
+ *
+ * @param <T> t
+ */
+final class MeteredSpliterator<T> implements Spliterator<T>, Consumer<T> {
+
+    private static final int SAMPLING_MASK = StageMeter.SAMPLING_INTERVAL - 1;
+
+    private final Spliterator<T> source;
+
+    private final StageMeter meter;
+
+    private long count;
+
+    private long flushed;
+
+    private long timedElements;
+
+    private long timedNanos;
+
+    private Throwable downstreamError;
+
+    private T pulled;
+
+    MeteredSpliterator(final Spliterator<T> source, final StageMeter meter) {
+        this.source = source;
+        this.meter = meter;
+        meter.track(this);
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+        final boolean advanced;
+        try {
+            if ((count & SAMPLING_MASK) == 0) {
+                final long start = System.nanoTime();
+                advanced = source.tryAdvance(this);
+                timedNanos += System.nanoTime() - start;
+                timedElements++;
+            } else {
+                advanced = source.tryAdvance(this);
+            }
+        } catch (RuntimeException | Error e) {
+            meter.recordError(e);
+            throw e;
+        }
+        if (!advanced) {
+            flush();
+            return false;
+        }
+        count++;
+        final T t = pulled;
+        pulled = null;
+        action.accept(t);
+        return true;
+    }
+
+    /**
+     * Lets the source push its elements, counting them locally. The time spent upstream is the elapsed time minus the
+     * time spent downstream, which is estimated from the sampled elements.
+     */
+    @Override
+    public void forEachRemaining(final Consumer<? super T> action) {
+        final long countBefore = count;
+        final long start = System.nanoTime();
+        long downstreamNanos = 0;
+        long downstreamSamples = 0;
+        try {
+            final long[] sampled = new long[2];
+            source.forEachRemaining(t -> {
+                try {
+                    if ((count++ & SAMPLING_MASK) == 0) {
+                        final long before = System.nanoTime();
+                        action.accept(t);
+                        sampled[0] += System.nanoTime() - before;
+                        sampled[1]++;
+                    } else {
+                        action.accept(t);
+                    }
+                } catch (RuntimeException | Error e) {
+                    downstreamError = e;
+                    throw e;
+                }
+            });
+            downstreamNanos = sampled[0];
+            downstreamSamples = sampled[1];
+        } catch (RuntimeException | Error e) {
+            if (e != downstreamError) {
+                meter.recordError(e);
+            }
+            throw e;
+        } finally {
+            final long elements = count - countBefore;
+            if (downstreamSamples > 0) {
+                final long downstream = downstreamNanos * elements / downstreamSamples;
+                timedElements += elements;
+                timedNanos += Math.max(0, System.nanoTime() - start - downstream);
+            }
+            flush();
+        }
+    }
+
+    @Override
+    public void accept(final T t) {
+        pulled = t;
+    }
+
+    /**
+     * Adds the counts not added to the meter yet. Synchronized, as the pipeline may publish its meters while a split of
+     * a short-circuited parallel operation is still winding down.
+     */
+    synchronized void flush() {
+        if (count != flushed) {
+            meter.recordOut(count - flushed);
+            flushed = count;
+        }
+        if (timedElements > 0) {
+            meter.recordTime(timedElements, timedNanos);
+            timedElements = 0;
+            timedNanos = 0;
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        final Spliterator<T> prefix = source.trySplit();
+        return prefix == null ? null : new MeteredSpliterator<>(prefix, meter);
+    }
+
+    @Override
+    public long estimateSize() {
+        return source.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics();
+    }
+
+    @Override
+    public Comparator<? super T> getComparator() {
+        return source.getComparator();
+    }
+
+}
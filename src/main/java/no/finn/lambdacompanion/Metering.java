@@ -0,0 +1,121 @@
+package no.finn.lambdacompanion;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Registry of the {@link StageMeter}s of metered {@link ExtendedStream} pipelines, see
+ * {@link ExtendedStream#metered(String)}.
+ * <p>
+ * Each pipeline counts into meters of its own. When one of its terminal operations completes, or when it is closed,
+ * its meters are added to the meters of the same stage names kept here, which are registered as MXBeans in the
+ * platform MBeanServer under {@code no.finn.lambdacompanion:type=StageMeter,name=<stage name>}, and are published to
+ * the sink, if any.
+ * <p>
+ * When metering is disabled, {@link ExtendedStream#metered(String)} returns the stream as is, so pipelines built while
+ * disabled carry no metering at all.
+ */
+@Deprecated
+public final class Metering {
+
+    private static final ConcurrentMap<String, StageMeter> STAGES = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled = true;
+
+    private static volatile MetricsSink sink;
+
+    private Metering() {
+    }
+
+    /**
+     * @param stageName name of the stage
+     * @return the meter of the totals of the stage over every pipeline, created and registered as an MXBean on first use
+     */
+    public static StageMeter stage(final String stageName) {
+        return STAGES.computeIfAbsent(stageName, name -> {
+            final StageMeter meter = StageMeter.total(name);
+            register(meter);
+            return meter;
+        });
+    }
+
+    /**
+     * @return the meters of every stage metered so far
+     */
+    public static Collection<StageMeter> stages() {
+        return Collections.unmodifiableCollection(new ArrayList<>(STAGES.values()));
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param enabled whether pipelines built from now on are metered
+     */
+    public static void setEnabled(final boolean enabled) {
+        Metering.enabled = enabled;
+    }
+
+    /**
+     * @param sink sink receiving the meters of a pipeline once one of its terminal operations completed, or null for
+     *             none. Exceptions thrown by the sink are ignored.
+     */
+    public static void setSink(final MetricsSink sink) {
+        Metering.sink = sink;
+    }
+
+    /**
+     * Resets the counters of every stage
+     */
+    public static void reset() {
+        STAGES.values().forEach(StageMeter::reset);
+    }
+
+    /**
+     * Adds the counts of the meters of a pipeline to the totals of their stages, and publishes them to the sink. Does
+     * nothing for meters already published.
+     * @param stages meters of a pipeline
+     */
+    static void publish(final List<StageMeter> stages) {
+        final List<StageMeter> unpublished = new ArrayList<>(stages.size());
+        for (StageMeter meter : stages) {
+            if (meter.markPublished()) {
+                meter.flush();
+                unpublished.add(meter);
+            }
+        }
+        if (unpublished.isEmpty()) {
+            return;
+        }
+        for (StageMeter meter : unpublished) {
+            stage(meter.getName()).add(meter);
+        }
+        final MetricsSink current = sink;
+        if (current != null) {
+            try {
+                current.publish(stages);
+            } catch (RuntimeException ignored) {
+                // a sink must not replace the result, or the exception, of the terminal operation
+            }
+        }
+    }
+
+    private static void register(final StageMeter meter) {
+        try {
+            final ObjectName name = new ObjectName("no.finn.lambdacompanion:type=StageMeter,name="
+                                                           + ObjectName.quote(meter.getName()));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(meter, name);
+        } catch (JMException | SecurityException e) {
+            // metering still works without JMX, e.g. when another class loader registered the same stage name
+        }
+    }
+
+}
@@ -0,0 +1,19 @@
+package no.finn.lambdacompanion;
+
+import java.util.List;
+
+/**
+ * Receives the meters of a metered {@link ExtendedStream} pipeline once one of its terminal operations completes,
+ * see {@link Metering#setSink(MetricsSink)}. Called on the thread running the terminal operation; exceptions thrown by
+ * the sink are ignored.
+ */
+@FunctionalInterface
+public interface MetricsSink {
+
+    /**
+     * @param stages meters of the stages of the pipeline, in pipeline order, counting this pipeline only. The totals
+     *               over every pipeline are kept by {@link Metering#stage(String)}.
+     */
+    void publish(List<StageMeter> stages);
+
+}
@@ -1,6 +1,13 @@
 package no.finn.lambdacompanion;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -31,6 +38,75 @@ public final class Optionals {
         return Stream.of(suppliers).map(Supplier::get).flatMap(Optionals::stream).findFirst();
     }
 
+    /**
+     * Concurrent variant of {@link #firstOf(Supplier[])}: all suppliers are started at once on the executor, so the
+     * latency is that of the slowest supplier needed rather than the sum of all of them.
+     * Priority order is kept: the first supplied Optional that is present is returned once every supplier before it
+     * has come back empty. The suppliers after it are then cancelled, interrupting them if running.
+     * An exception thrown by a supplier is rethrown when that supplier is reached in priority order.
+     * @param executor executor running the suppliers
+     * @param suppliers for methods that need to be concurrently invoked
+     * @param <T> t
+     * @return the first supplied Optional that is present
+     */
+    public static <T> Optional<T> firstOf(final Executor executor, final Supplier<Optional<T>>... suppliers) {
+        return firstOf(executor, Long.MAX_VALUE, TimeUnit.NANOSECONDS, suppliers);
+    }
+
+    /**
+     * Same as {@link #firstOf(Executor, Supplier[])}, giving up once the timeout has elapsed: all suppliers are then
+     * cancelled and an empty Optional is returned, unless a present Optional has already been decided. An empty
+     * Optional is also returned, with the interrupt flag restored, if the calling thread is interrupted.
+     * @param executor executor running the suppliers
+     * @param timeout maximum time to wait for the suppliers
+     * @param unit unit of the timeout
+     * @param suppliers for methods that need to be concurrently invoked
+     * @param <T> t
+     * @return the first supplied Optional that is present, or an empty Optional if none is or on timeout
+     * @throws java.util.concurrent.RejectedExecutionException if the executor rejects a supplier, once the suppliers
+     * already started are cancelled
+     */
+    public static <T> Optional<T> firstOf(final Executor executor, final long timeout, final TimeUnit unit,
+                                          final Supplier<Optional<T>>... suppliers) {
+        final List<FutureTask<Optional<T>>> tasks = new ArrayList<>(suppliers.length);
+        final long timeoutNanos = unit.toNanos(timeout);
+        final long deadline = System.nanoTime() + timeoutNanos;
+        try {
+            for (Supplier<Optional<T>> supplier : suppliers) {
+                final FutureTask<Optional<T>> task = new FutureTask<>(supplier::get);
+                tasks.add(task);
+                executor.execute(task);
+            }
+            for (FutureTask<Optional<T>> task : tasks) {
+                final Optional<T> result = timeoutNanos == Long.MAX_VALUE
+                        ? task.get()
+                        : task.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (result.isPresent()) {
+                    return result;
+                }
+            }
+            return Optional.empty();
+        } catch (TimeoutException e) {
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            for (FutureTask<Optional<T>> task : tasks) {
+                task.cancel(true);
+            }
+        }
+    }
+
     /**
      * Convenience method to turn an Optional into a Stream, due to the lack Optional#stream() method...
      * <pre>
@@ -1,8 +1,11 @@
 package no.finn.lambdacompanion;
 
 import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -76,12 +79,123 @@ public final class Pair<L, R> {
      * @return a Pair of the left values and right values
      */
     public static <L, R> Pair<List<L>, List<R>> of(final List<Either<L, R>> collection) {
-        return new Pair<List<L>, List<R>>(collection.stream()
-                                                    .flatMap(cat -> cat.left().map(Stream::<L>of).left().orElseGet(Stream::empty))
-                                                    .collect(Collectors.toList()),
-                                          collection.stream()
-                                                    .flatMap(cat -> cat.right().map(Stream::<R>of).right().orElseGet(Stream::empty))
-                                                    .collect(Collectors.toList()));
+        return of((Iterable<Either<L, R>>) collection);
+    }
+
+    /**
+     * Same as {@link #of(List)}, for any Iterable. The values are split in a single pass.
+     *
+     * @param iterable disjoint unions
+     * @param <L>      type of the left side
+     * @param <R>      type of the right side
+     * @return a Pair of the left values and right values
+     */
+    public static <L, R> Pair<List<L>, List<R>> of(final Iterable<Either<L, R>> iterable) {
+        final List<L> lefts = new ArrayList<>();
+        final List<R> rights = new ArrayList<>();
+        for (final Either<L, R> either : iterable) {
+            if (either.isLeft()) {
+                lefts.add(either.getLeft());
+            } else {
+                rights.add(either.getRight());
+            }
+        }
+        return new Pair<>(lefts, rights);
+    }
+
+    /**
+     * Same as {@link #of(List)}, for a Stream, see {@link #partitioning()}.
+     *
+     * @param stream disjoint unions
+     * @param <L>    type of the left side
+     * @param <R>    type of the right side
+     * @return a Pair of the left values and right values
+     */
+    public static <L, R> Pair<List<L>, List<R>> of(final Stream<Either<L, R>> stream) {
+        return stream.collect(partitioning());
+    }
+
+    /**
+     * Collector counterpart of {@link #of(List)}: splits a Stream of Either[L,R] into a Pair of the left values and the right
+     * values, in a single pass. Encounter order is kept on each side, also for parallel streams.
+     *
+     * @param <L> type of the left side
+     * @param <R> type of the right side
+     * @return a {@link java.util.stream.Collector}
+     */
+    public static <L, R> Collector<Either<L, R>, ?, Pair<List<L>, List<R>>> partitioning() {
+        return partitioning(Collectors.toList(), Collectors.toList());
+    }
+
+    /**
+     * Same as {@link #partitioning()}, with both lists presized for the given number of values. In a parallel stream,
+     * only the lists of the first split are presized, the others growing as needed.
+     *
+     * @param expectedSize expected number of values on each side
+     * @param <L>          type of the left side
+     * @param <R>          type of the right side
+     * @return a {@link java.util.stream.Collector}
+     */
+    public static <L, R> Collector<Either<L, R>, ?, Pair<List<L>, List<R>>> partitioning(final int expectedSize) {
+        final SizeHint hint = new SizeHint(expectedSize);
+        return Collector.of(() -> {
+                                final int size = hint.claim();
+                                return new Pair<List<L>, List<R>>(new ArrayList<>(size), new ArrayList<>(size));
+                            },
+                            (pair, either) -> {
+                                if (either.isLeft()) {
+                                    pair.left.add(either.getLeft());
+                                } else {
+                                    pair.right.add(either.getRight());
+                                }
+                            },
+                            (first, second) -> {
+                                first.left.addAll(second.left);
+                                first.right.addAll(second.right);
+                                return first;
+                            },
+                            pair -> {
+                                hint.release();
+                                return pair;
+                            });
+    }
+
+    /**
+     * Splits a Stream of Either[L,R] in a single pass, handing left values to one downstream Collector and right values
+     * to another one, e.g. counting the lefts while collecting the rights to a set:
+     * <pre>
+     * {@code
+     *     Pair<Long, Set<String>> result = eithers.collect(Pair.partitioning(Collectors.counting(), Collectors.toSet()));
+     * }
+     * </pre>
+     *
+     * @param lefts  downstream Collector for left values
+     * @param rights downstream Collector for right values
+     * @param <L>    type of the left side
+     * @param <R>    type of the right side
+     * @param <A>    result type of the left Collector
+     * @param <B>    result type of the right Collector
+     * @param <AL>   intermediate type of the left Collector
+     * @param <AR>   intermediate type of the right Collector
+     * @return a {@link java.util.stream.Collector}
+     */
+    public static <L, R, A, B, AL, AR> Collector<Either<L, R>, ?, Pair<A, B>> partitioning(final Collector<? super L, AL, A> lefts,
+                                                                                         final Collector<? super R, AR, B> rights) {
+        final BiConsumer<AL, ? super L> leftAccumulator = lefts.accumulator();
+        final BiConsumer<AR, ? super R> rightAccumulator = rights.accumulator();
+        final BinaryOperator<AL> leftCombiner = lefts.combiner();
+        final BinaryOperator<AR> rightCombiner = rights.combiner();
+        return Collector.of(() -> new Pair<>(lefts.supplier().get(), rights.supplier().get()),
+                            (pair, either) -> {
+                                if (either.isLeft()) {
+                                    leftAccumulator.accept(pair.left, either.getLeft());
+                                } else {
+                                    rightAccumulator.accept(pair.right, either.getRight());
+                                }
+                            },
+                            (first, second) -> new Pair<>(leftCombiner.apply(first.left, second.left),
+                                                          rightCombiner.apply(first.right, second.right)),
+                            pair -> new Pair<>(lefts.finisher().apply(pair.left), rights.finisher().apply(pair.right)));
     }
 
     /**
@@ -98,4 +212,14 @@ public final class Pair<L, R> {
         return Collectors.toMap(Pair::getLeft, Pair::getRight);
     }
 
+    /**
+     * Collects a {@link java.util.stream.Stream} of Pair-s of Long into a {@link PairBuffer}, which stores them as two
+     * arrays of primitive longs.
+     *
+     * @return a {@link java.util.stream.Collector}
+     */
+    public static Collector<Pair<Long, Long>, ?, PairBuffer> toPairBuffer() {
+        return PairBuffer.collector(Pair::getLeft, Pair::getRight);
+    }
+
 }
@@ -0,0 +1,272 @@
+package no.finn.lambdacompanion;
+
+import java.util.Arrays;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Growable buffer of pairs of long values, stored as two parallel arrays (structure of arrays) instead of a list of
+ * {@link Pair} of boxed Long. Each pair costs 16 bytes, plus the spare capacity.
+ * <p>
+ * Pairs are accessed by index, and can be walked with {@link #forEach(LongPairConsumer)} or streamed column by column
+ * without allocating per pair. A PairBuffer is not thread safe; use {@link #collector(ToLongFunction, ToLongFunction)}
+ * or {@link Pair#toPairBuffer()} to fill one from a parallel stream.
+ */
+@Deprecated
+public final class PairBuffer {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    private long[] lefts;
+
+    private long[] rights;
+
+    private int size;
+
+    public PairBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PairBuffer(final int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Negative capacity: " + initialCapacity);
+        }
+        this.lefts = new long[initialCapacity];
+        this.rights = new long[initialCapacity];
+    }
+
+    /**
+     * Represents an operation that accepts the two values of a pair of longs
+     */
+    @FunctionalInterface
+    public interface LongPairConsumer {
+
+        void accept(long left, long right);
+
+    }
+
+    public PairBuffer add(final long left, final long right) {
+        if (size == lefts.length) {
+            grow(size + 1);
+        }
+        lefts[size] = left;
+        rights[size] = right;
+        size++;
+        return this;
+    }
+
+    public PairBuffer add(final LongPair pair) {
+        return add(pair.getLeft(), pair.getRight());
+    }
+
+    public PairBuffer addAll(final PairBuffer other) {
+        if (size + other.size > lefts.length) {
+            grow(size + other.size);
+        }
+        System.arraycopy(other.lefts, 0, lefts, size, other.size);
+        System.arraycopy(other.rights, 0, rights, size, other.size);
+        size += other.size;
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param index index
+     * @return the left value of the pair at the given index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public long getLeft(final int index) {
+        checkIndex(index);
+        return lefts[index];
+    }
+
+    /**
+     * @param index index
+     * @return the right value of the pair at the given index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public long getRight(final int index) {
+        checkIndex(index);
+        return rights[index];
+    }
+
+    /**
+     * @param index index
+     * @return a new LongPair of the values at the given index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public LongPair get(final int index) {
+        checkIndex(index);
+        return new LongPair(lefts[index], rights[index]);
+    }
+
+    /**
+     * Sorts the pairs in place by ascending left value. The sort is not stable: pairs with equal left values may be
+     * reordered.
+     *
+     * @return this buffer
+     */
+    public PairBuffer sortByLeft() {
+        sort(0, size - 1);
+        return this;
+    }
+
+    public void forEach(final LongPairConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(lefts[i], rights[i]);
+        }
+    }
+
+    public LongStream lefts() {
+        return Arrays.stream(lefts, 0, size);
+    }
+
+    public LongStream rights() {
+        return Arrays.stream(rights, 0, size);
+    }
+
+    /**
+     * @return a Stream of the pairs, allocating one LongPair per element. Prefer {@link #forEach(LongPairConsumer)},
+     * {@link #lefts()} and {@link #rights()} on hot paths.
+     */
+    public Stream<LongPair> stream() {
+        return IntStream.range(0, size).mapToObj(i -> new LongPair(lefts[i], rights[i]));
+    }
+
+    public void trimToSize() {
+        if (size < lefts.length) {
+            lefts = Arrays.copyOf(lefts, size);
+            rights = Arrays.copyOf(rights, size);
+        }
+    }
+
+    /**
+     * Collects a Stream into a PairBuffer, extracting the two long values of each element with the given functions
+     *
+     * @param left  function extracting the left value
+     * @param right function extracting the right value
+     * @param <T>   type of the stream elements
+     * @return a {@link java.util.stream.Collector}
+     */
+    public static <T> Collector<T, ?, PairBuffer> collector(final ToLongFunction<? super T> left,
+                                                           final ToLongFunction<? super T> right) {
+        return Collector.of(PairBuffer::new,
+                            (buffer, t) -> buffer.add(left.applyAsLong(t), right.applyAsLong(t)),
+                            PairBuffer::addAll,
+                            Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        final PairBuffer buffer = (PairBuffer) o;
+
+        if (size != buffer.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (lefts[i] != buffer.lefts[i] || rights[i] != buffer.rights[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int i = 0; i < size; i++) {
+            result = 31 * result + 31 * Long.hashCode(lefts[i]) + Long.hashCode(rights[i]);
+        }
+        return result;
+    }
+
+    private void grow(final int minCapacity) {
+        final int capacity = Math.max(minCapacity, lefts.length + (lefts.length >> 1) + 1);
+        lefts = Arrays.copyOf(lefts, capacity);
+        rights = Arrays.copyOf(rights, capacity);
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private void sort(int low, int high) {
+        while (high - low >= INSERTION_SORT_THRESHOLD) {
+            final int middle = (low + high) >>> 1;
+            if (lefts[middle] < lefts[low]) {
+                swap(middle, low);
+            }
+            if (lefts[high] < lefts[low]) {
+                swap(high, low);
+            }
+            if (lefts[high] < lefts[middle]) {
+                swap(high, middle);
+            }
+            final long pivot = lefts[middle];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (lefts[i] < pivot) {
+                    i++;
+                }
+                while (lefts[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            // recurse into the smaller side only, so the stack stays logarithmic
+            if (j - low < high - i) {
+                sort(low, j);
+                low = i;
+            } else {
+                sort(i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            final long left = lefts[i];
+            final long right = rights[i];
+            int j = i - 1;
+            while (j >= low && lefts[j] > left) {
+                lefts[j + 1] = lefts[j];
+                rights[j + 1] = rights[j];
+                j--;
+            }
+            lefts[j + 1] = left;
+            rights[j + 1] = right;
+        }
+    }
+
+    private void swap(final int i, final int j) {
+        final long left = lefts[i];
+        lefts[i] = lefts[j];
+        lefts[j] = left;
+        final long right = rights[i];
+        rights[i] = rights[j];
+        rights[j] = right;
+    }
+
+}
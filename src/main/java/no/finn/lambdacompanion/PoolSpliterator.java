@@ -0,0 +1,81 @@
+package no.finn.lambdacompanion;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Spliterator of a pipeline given a pool with {@link ExtendedStream#parallel(ForkJoinPool)}, making its first call
+ * inside that pool.
+ * <p>
+ * The spliterator of a parallel pipeline is lazy: its stateful stages, e.g. sorted or distinct, and the stages before
+ * them, are evaluated in parallel on the first call made to it, in the pool of the calling thread. Once evaluated, the
+ * elements are handed out on the traversing thread, as by any spliterator, except for forEachRemaining, which runs
+ * inside the pool like {@link ExtendedStream#forEach(Consumer)}.
+ *
+ * @param <T> t
+ */
+final class PoolSpliterator<T> implements Spliterator<T> {
+
+    private final Spliterator<T> source;
+
+    private final ForkJoinPool pool;
+
+    private boolean started;
+
+    PoolSpliterator(final Spliterator<T> source, final ForkJoinPool pool) {
+        this.source = source;
+        this.pool = pool;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+        return started ? source.tryAdvance(action) : start(() -> source.tryAdvance(action));
+    }
+
+    @Override
+    public void forEachRemaining(final Consumer<? super T> action) {
+        start(() -> {
+            source.forEachRemaining(action);
+            return null;
+        });
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        final Spliterator<T> prefix = started ? source.trySplit() : start(source::trySplit);
+        if (prefix == null) {
+            return null;
+        }
+        final PoolSpliterator<T> split = new PoolSpliterator<>(prefix, pool);
+        split.started = true;
+        return split;
+    }
+
+    @Override
+    public long estimateSize() {
+        return started ? source.estimateSize() : start(source::estimateSize);
+    }
+
+    @Override
+    public int characteristics() {
+        return started ? source.characteristics() : start(source::characteristics);
+    }
+
+    @Override
+    public Comparator<? super T> getComparator() {
+        return source.getComparator();
+    }
+
+    private <R> R start(final Supplier<R> call) {
+        started = true;
+        if (ForkJoinTask.getPool() == pool) {
+            return call.get();
+        }
+        return pool.submit(call::get).join();
+    }
+
+}
@@ -0,0 +1,33 @@
+package no.finn.lambdacompanion;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Expected size given to a presizing Collector. Only the first container of each collect gets it, the containers of
+ * the other splits of a parallel stream start at the default capacity, so that a parallel collect allocates the
+ * expected size once, not once per split. The hint is released by the finisher, for the Collector to be reused.
+ */
+final class SizeHint {
+
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private final int expectedSize;
+
+    private final AtomicBoolean claimed = new AtomicBoolean();
+
+    SizeHint(final int expectedSize) {
+        this.expectedSize = expectedSize;
+    }
+
+    /**
+     * @return the expected size for the first container of a collect, the default capacity for the next ones
+     */
+    int claim() {
+        return !claimed.get() && claimed.compareAndSet(false, true) ? expectedSize : DEFAULT_CAPACITY;
+    }
+
+    void release() {
+        claimed.set(false);
+    }
+
+}
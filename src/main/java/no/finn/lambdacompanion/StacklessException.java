@@ -0,0 +1,23 @@
+package no.finn.lambdacompanion;
+
+/**
+ * A lightweight Exception for expected failures, e.g. in parsing or validation, where the cost of capturing a stack
+ * trace is not worth it.
+ *
+ * No stack trace is captured and suppressed exceptions are not recorded, so an instance is immutable and can be
+ * preallocated and shared, e.g. as a constant thrown from a ThrowingFunction or passed to {@link Try#failure(Exception)}.
+ */
+@Deprecated
+public class StacklessException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    public StacklessException(final String message) {
+        super(message, null, false, false);
+    }
+
+    public StacklessException(final String message, final Throwable cause) {
+        super(message, cause, false, false);
+    }
+
+}
@@ -0,0 +1,213 @@
+package no.finn.lambdacompanion;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of a stage of an {@link ExtendedStream} pipeline, from the previous metered point, or the source, up to
+ * the point marked with {@link ExtendedStream#metered(String)}.
+ * <p>
+ * Elements and errors are counted exactly. Time is sampled with {@link System#nanoTime()} on the first element of each
+ * split and one element out of {@value #SAMPLING_INTERVAL} after it, to estimate how long it takes to pull an element through every stage up to
+ * this point. The time spent in this stage only is estimated by subtracting what the previous metered point measured.
+ * <p>
+ * Each pipeline counts into meters of its own, linked to the previous metered point of the same pipeline, so that
+ * pipelines using the same stage names do not mix their counts. Once a terminal operation of the pipeline completes,
+ * its meters are added to the meters of the same names, which keep the totals over every run and are the ones
+ * registered over JMX, see {@link Metering#stage(String)}.
+ */
+@Deprecated
+public final class StageMeter implements StageMeterMXBean {
+
+    static final int SAMPLING_INTERVAL = 1024;
+
+    private final String name;
+
+    private final boolean total;
+
+    private final StageMeter upstream;
+
+    private final Set<Throwable> countedErrors;
+
+    private final Queue<MeteredSpliterator<?>> splits;
+
+    private final AtomicBoolean published = new AtomicBoolean();
+
+    private final LongAdder in = new LongAdder();
+
+    private final LongAdder out = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    private final LongAdder samples = new LongAdder();
+
+    private final LongAdder sampledNanos = new LongAdder();
+
+    private final LongAdder stageNanos = new LongAdder();
+
+    /**
+     * @param name name of the stage
+     * @return a meter keeping the totals of every pipeline run of the stage
+     */
+    static StageMeter total(final String name) {
+        return new StageMeter(name, true, null, null, null);
+    }
+
+    /**
+     * @param name name of the stage
+     * @param upstream meter of the previous metered point of the pipeline, or null if this is the first one
+     * @return a meter counting a single pipeline
+     */
+    static StageMeter pipeline(final String name, final StageMeter upstream) {
+        final Set<Throwable> countedErrors = upstream == null
+                ? Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()))
+                : upstream.countedErrors;
+        return new StageMeter(name, false, upstream, countedErrors, new ConcurrentLinkedQueue<>());
+    }
+
+    private StageMeter(final String name, final boolean total, final StageMeter upstream,
+                       final Set<Throwable> countedErrors, final Queue<MeteredSpliterator<?>> splits) {
+        this.name = name;
+        this.total = total;
+        this.upstream = upstream;
+        this.countedErrors = countedErrors;
+        this.splits = splits;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of elements that came out of the previous metered point, or out of this one if this is the
+     * first metered point of the pipeline
+     */
+    @Override
+    public long getElementsIn() {
+        if (total) {
+            return in.sum();
+        }
+        return upstream == null ? out.sum() : upstream.getElementsOut();
+    }
+
+    @Override
+    public long getElementsOut() {
+        return out.sum();
+    }
+
+    /**
+     * @return the number of exceptions thrown by this stage
+     */
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * @return the number of elements the time was measured or estimated for
+     */
+    @Override
+    public long getSamples() {
+        return samples.sum();
+    }
+
+    /**
+     * @return the average time in nanoseconds it took to pull an element through every stage up to this point
+     */
+    @Override
+    public double getAverageNanos() {
+        final long count = samples.sum();
+        return count == 0 ? 0 : (double) sampledNanos.sum() / count;
+    }
+
+    /**
+     * @return an estimate of the total time in nanoseconds spent in this stage, excluding the previous stages
+     */
+    @Override
+    public long getStageNanos() {
+        if (total) {
+            return stageNanos.sum();
+        }
+        final double through = getAverageNanos() * getElementsOut();
+        final double before = upstream == null ? 0 : upstream.getAverageNanos() * upstream.getElementsOut();
+        return Math.max(0, Math.round(through - before));
+    }
+
+    @Override
+    public void reset() {
+        in.reset();
+        out.reset();
+        errors.reset();
+        samples.reset();
+        sampledNanos.reset();
+        stageNanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "StageMeter{" +
+                "name='" + name + '\'' +
+                ", in=" + getElementsIn() +
+                ", out=" + getElementsOut() +
+                ", errors=" + getErrors() +
+                ", stageNanos=" + getStageNanos() +
+                '}';
+    }
+
+    void track(final MeteredSpliterator<?> split) {
+        splits.add(split);
+    }
+
+    /**
+     * Adds the counts the splits of this pipeline meter have not added yet, e.g. when a short-circuiting operation
+     * stopped pulling from them
+     */
+    void flush() {
+        for (MeteredSpliterator<?> split : splits) {
+            split.flush();
+        }
+    }
+
+    /**
+     * @return true the first time only, so the counts of a pipeline are added to the totals once
+     */
+    boolean markPublished() {
+        return published.compareAndSet(false, true);
+    }
+
+    void add(final StageMeter run) {
+        in.add(run.getElementsIn());
+        out.add(run.getElementsOut());
+        errors.add(run.getErrors());
+        samples.add(run.getSamples());
+        sampledNanos.add(run.sampledNanos.sum());
+        stageNanos.add(run.getStageNanos());
+    }
+
+    void recordOut(final long elements) {
+        out.add(elements);
+    }
+
+    void recordTime(final long elements, final long nanos) {
+        samples.add(elements);
+        sampledNanos.add(nanos);
+    }
+
+    /**
+     * Counts an exception, unless an earlier metered point of the pipeline already did: an exception thrown upstream
+     * goes through every metered point, only the closest one counts it.
+     * @param e exception thrown
+     */
+    void recordError(final Throwable e) {
+        if (countedErrors.add(e)) {
+            errors.increment();
+        }
+    }
+
+}
@@ -0,0 +1,25 @@
+package no.finn.lambdacompanion;
+
+/**
+ * JMX view of a {@link StageMeter}, registered by {@link Metering} under
+ * {@code no.finn.lambdacompanion:type=StageMeter,name=<stage name>}
+ */
+public interface StageMeterMXBean {
+
+    String getName();
+
+    long getElementsIn();
+
+    long getElementsOut();
+
+    long getErrors();
+
+    long getSamples();
+
+    double getAverageNanos();
+
+    long getStageNanos();
+
+    void reset();
+
+}
@@ -16,6 +16,10 @@ public class Success<T> extends Try<T> {
         this.t = t;
     }
 
+    T get() {
+        return t;
+    }
+
     @Override
     public <U> Try<U> map(ThrowingFunction<? super T, ? extends U, ? extends Exception> mapper) {
         try {
@@ -34,6 +38,33 @@ public class Success<T> extends Try<T> {
         }
     }
 
+    @Override
+    public IntTry mapToInt(ThrowingToIntFunction<? super T, ? extends Exception> mapper) {
+        try {
+            return IntTry.success(mapper.applyAsInt(t));
+        } catch (Exception e) {
+            return IntTry.failure(e);
+        }
+    }
+
+    @Override
+    public LongTry mapToLong(ThrowingToLongFunction<? super T, ? extends Exception> mapper) {
+        try {
+            return LongTry.success(mapper.applyAsLong(t));
+        } catch (Exception e) {
+            return LongTry.failure(e);
+        }
+    }
+
+    @Override
+    public DoubleTry mapToDouble(ThrowingToDoubleFunction<? super T, ? extends Exception> mapper) {
+        try {
+            return DoubleTry.success(mapper.applyAsDouble(t));
+        } catch (Exception e) {
+            return DoubleTry.failure(e);
+        }
+    }
+
     @Override
     public Optional<Try<T>> filter(final Predicate<T> predicate) {
         Objects.requireNonNull(predicate);
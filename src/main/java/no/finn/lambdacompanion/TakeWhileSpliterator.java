@@ -0,0 +1,70 @@
+package no.finn.lambdacompanion;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Spliterator emitting the elements of a source spliterator while they match a predicate, stopping at the first
+ * element that does not. That element is emitted too when inclusive, as the last one.
+ * <p>
+ * The source is never pulled past the first non-matching element. To still feed parallel pipelines, splits are made
+ * of batches of elements tested in encounter order, see {@link Spliterators.AbstractSpliterator#trySplit()}, so the
+ * stages after this one run in parallel while the predicate is tested sequentially.
+ * <p>
+ * The source is not queried when this spliterator is built, as that would evaluate the stateful stages of a parallel
+ * pipeline, e.g. sorted, on the calling thread: the size is unknown, as in the JDK's own takeWhile, and the
+ * characteristics are read from the source when first asked for.
+ *
+ * @param <T> t
+ */
+final class TakeWhileSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+    private final Spliterator<T> source;
+
+    private final Predicate<? super T> predicate;
+
+    private final boolean inclusive;
+
+    private boolean done;
+
+    private T pulled;
+
+    TakeWhileSpliterator(final Spliterator<T> source, final Predicate<? super T> predicate, final boolean inclusive) {
+        super(Long.MAX_VALUE, 0);
+        this.source = source;
+        this.predicate = predicate;
+        this.inclusive = inclusive;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+        if (done || !source.tryAdvance(t -> pulled = t)) {
+            done = true;
+            return false;
+        }
+        final T t = pulled;
+        pulled = null;
+        if (!predicate.test(t)) {
+            done = true;
+            if (!inclusive) {
+                return false;
+            }
+        }
+        action.accept(t);
+        return true;
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics() & (ORDERED | DISTINCT | SORTED | NONNULL | IMMUTABLE | CONCURRENT);
+    }
+
+    @Override
+    public Comparator<? super T> getComparator() {
+        return source.getComparator();
+    }
+
+}
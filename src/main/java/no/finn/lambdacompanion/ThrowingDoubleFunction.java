@@ -0,0 +1,8 @@
+package no.finn.lambdacompanion;
+
+@FunctionalInterface
+public interface ThrowingDoubleFunction<R, E extends Exception> {
+
+    R apply(double value) throws E;
+
+}
@@ -0,0 +1,7 @@
+package no.finn.lambdacompanion;
+
+@FunctionalInterface
+public interface ThrowingDoubleSupplier<E extends Exception> {
+
+    double getAsDouble() throws E;
+}
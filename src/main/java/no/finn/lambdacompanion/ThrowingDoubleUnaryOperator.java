@@ -0,0 +1,8 @@
+package no.finn.lambdacompanion;
+
+@FunctionalInterface
+public interface ThrowingDoubleUnaryOperator<E extends Exception> {
+
+    double applyAsDouble(double operand) throws E;
+
+}
@@ -0,0 +1,8 @@
+package no.finn.lambdacompanion;
+
+@FunctionalInterface
+public interface ThrowingIntFunction<R, E extends Exception> {
+
+    R apply(int value) throws E;
+
+}
@@ -0,0 +1,7 @@
+package no.finn.lambdacompanion;
+
+@FunctionalInterface
+public interface ThrowingIntSupplier<E extends Exception> {
+
+    int getAsInt() throws E;
+}
@@ -0,0 +1,8 @@
+package no.finn.lambdacompanion;
+
+@FunctionalInterface
+public interface ThrowingIntUnaryOperator<E extends Exception> {
+
+    int applyAsInt(int operand) throws E;
+
+}
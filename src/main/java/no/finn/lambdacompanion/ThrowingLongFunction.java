@@ -0,0 +1,8 @@
+package no.finn.lambdacompanion;
+
+@FunctionalInterface
+public interface ThrowingLongFunction<R, E extends Exception> {
+
+    R apply(long value) throws E;
+
+}
@@ -0,0 +1,7 @@
+package no.finn.lambdacompanion;
+
+@FunctionalInterface
+public interface ThrowingLongSupplier<E extends Exception> {
+
+    long getAsLong() throws E;
+}
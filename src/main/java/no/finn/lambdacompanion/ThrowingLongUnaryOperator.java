@@ -0,0 +1,8 @@
+package no.finn.lambdacompanion;
+
+@FunctionalInterface
+public interface ThrowingLongUnaryOperator<E extends Exception> {
+
+    long applyAsLong(long operand) throws E;
+
+}
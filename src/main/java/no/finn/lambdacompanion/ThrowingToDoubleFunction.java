@@ -0,0 +1,8 @@
+package no.finn.lambdacompanion;
+
+@FunctionalInterface
+public interface ThrowingToDoubleFunction<T, E extends Exception> {
+
+    double applyAsDouble(T t) throws E;
+
+}
@@ -0,0 +1,8 @@
+package no.finn.lambdacompanion;
+
+@FunctionalInterface
+public interface ThrowingToIntFunction<T, E extends Exception> {
+
+    int applyAsInt(T t) throws E;
+
+}
@@ -0,0 +1,8 @@
+package no.finn.lambdacompanion;
+
+@FunctionalInterface
+public interface ThrowingToLongFunction<T, E extends Exception> {
+
+    long applyAsLong(T t) throws E;
+
+}
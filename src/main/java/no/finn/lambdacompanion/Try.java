@@ -1,13 +1,13 @@
 package no.finn.lambdacompanion;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.stream.Collector;
 
 /**
  * Try is a right-biased datatype for wrapping function calls that might fail with an Exception.
@@ -42,6 +42,36 @@ public abstract class Try<T> {
      */
     public abstract <U> Try<U> flatMap(ThrowingFunction<? super T, ? extends Try<U>, ? extends Exception> mapper);
 
+    /**
+     * Applies a function to int on a value of type Success, without boxing the result. Returns a Failure with the same
+     * Exception if Failure.
+     * @param mapper Function from T to int with an Exception in the signature
+     * @return a new IntTry
+     */
+    public IntTry mapToInt(ThrowingToIntFunction<? super T, ? extends Exception> mapper) {
+        return recover(t -> IntTry.of(mapper, t), IntTry::rewrap);
+    }
+
+    /**
+     * Applies a function to long on a value of type Success, without boxing the result. Returns a Failure with the same
+     * Exception if Failure.
+     * @param mapper Function from T to long with an Exception in the signature
+     * @return a new LongTry
+     */
+    public LongTry mapToLong(ThrowingToLongFunction<? super T, ? extends Exception> mapper) {
+        return recover(t -> LongTry.of(mapper, t), LongTry::rewrap);
+    }
+
+    /**
+     * Applies a function to double on a value of type Success, without boxing the result. Returns a Failure with the same
+     * Exception if Failure.
+     * @param mapper Function from T to double with an Exception in the signature
+     * @return a new DoubleTry
+     */
+    public DoubleTry mapToDouble(ThrowingToDoubleFunction<? super T, ? extends Exception> mapper) {
+        return recover(t -> DoubleTry.of(mapper, t), DoubleTry::rewrap);
+    }
+
     /**
      * Applies a filter, where a match returns Success and Failure otherwise.
      * @param predicate Predicate function to determine Success or Failure
@@ -193,10 +223,63 @@ public abstract class Try<T> {
         }
     }
 
+    /**
+     * Starting point to the Try structure. Create a try from a Supplier that throws an Exception, run with hedging:
+     * backup attempts are started when the supplier is slow, and the first Success wins, see {@link Hedge}
+     * @param supplier The supplier function
+     * @param hedge The hedging policy
+     * @param <U> Type of the supplied object from the supplier function
+     * @return a Try
+     */
+    public static <U> Try<U> hedged(ThrowingSupplier<U, ? extends Exception> supplier, Hedge hedge) {
+        return hedge.call(supplier);
+    }
+
+    /**
+     * Starting point to a deferred Try. Nothing is run until a terminal operation is called on the returned LazyTry,
+     * which then runs the supplier and all the chained steps in one pass.
+     * @param supplier The supplier function
+     * @param <U> Type of the supplied object from the supplier function
+     * @return a LazyTry
+     */
+    public static <U> LazyTry<U> defer(ThrowingSupplier<U, ? extends Exception> supplier) {
+        return new LazyTry<>(supplier);
+    }
+
     public static <U> Try<U> failure(Exception Exception) {
         return new Failure<>(Exception);
     }
 
+    /**
+     * Creates a Failure from a reason, without capturing a stack trace. Meant for expected failures, where the reason is
+     * all that is needed. The Failure still holds an Exception, a {@link StacklessException}, for getException(),
+     * recover() and orElseRethrow().
+     * @param reason the reason for the failure
+     * @param <U> the type
+     * @return a Failure
+     */
+    public static <U> Try<U> stacklessFailure(String reason) {
+        return new Failure<>(new StacklessException(reason));
+    }
+
+    /**
+     * Registers the global observer notified of every Failure created, replacing the previous one, e.g. a
+     * {@link FailureMonitor}. Without an observer, creating a Failure only costs an extra volatile read. Failed
+     * IntTry, LongTry and DoubleTry are observed too, and converting a failure between these types does not notify
+     * again.
+     * @param observer the observer, or null to remove it
+     */
+    public static void setFailureObserver(FailureObserver observer) {
+        Failure.observer = observer;
+    }
+
+    /**
+     * @return the global observer of failures, or null if none is registered
+     */
+    public static FailureObserver getFailureObserver() {
+        return Failure.observer;
+    }
+
     public static <T> Try<T> success(T value) {
         return new Success<>(value);
     }
@@ -208,24 +291,141 @@ public abstract class Try<T> {
      * @return One Try containing a list of Ts
      */
     public static <T> Try<List<T>> sequence(List<Try<T>> tries) {
-        if (tries.size() == 0) {
+        if (tries.isEmpty()) {
             return Try.failure(new IllegalArgumentException("Cannot sequence an empty list"));
         }
-        Try<List<T>> head = Functions.head(tries).map(Collections::singletonList);
-        if (tries.size() == 1 || !head.toOptional().isPresent()) {
-            return head;
+        final List<T> values = new ArrayList<>(tries.size());
+        for (Try<T> t : tries) {
+            if (t instanceof Failure) {
+                return failed(t);
+            }
+            values.add(((Success<T>) t).get());
+        }
+        return new Success<>(values);
+    }
+
+    /**
+     * Applies a function to every value of the given list and collects the results in one Try, or stops at the
+     * _first_ failure. Same as mapping every value with Try.of and sequencing the result, without building the
+     * intermediate list of tries.
+     * @param values List of arguments for the function
+     * @param func Function to be attempted on every value
+     * @param <U> Type of the function return value
+     * @param <V> Type of the function argument
+     * @return One Try containing a list of Us
+     */
+    public static <U, V> Try<List<U>> traverse(List<V> values,
+                                               ThrowingFunction<? super V, ? extends U, ? extends Exception> func) {
+        if (values.isEmpty()) {
+            return Try.failure(new IllegalArgumentException("Cannot traverse an empty list"));
+        }
+        final List<U> results = new ArrayList<>(values.size());
+        for (V v : values) {
+            try {
+                results.add(func.apply(v));
+            } catch (Exception e) {
+                return new Failure<>(e);
+            }
         }
-        return concat(head, head.flatMap(t -> sequence(Functions.tail(tries))));
+        return new Success<>(results);
     }
 
-    private static <T> Try<List<T>> concat(Try<List<T>> head, Try<List<T>> tail) {
-        return head.flatMap(l -> tail.map(k -> concat(l, k)));
+    /**
+     * Collector counterpart of {@link #sequence(List)}: collects a stream of tries into one Try containing a list of
+     * values, or the _first_ failure in encounter order. Values following a failure are not accumulated.
+     * @param <T> the type
+     * @return a {@link java.util.stream.Collector}
+     */
+    public static <T> Collector<Try<T>, ?, Try<List<T>>> toSequence() {
+        return toSequence(10);
     }
 
-    private static <T> List<T> concat(List<T> l, List<T> k) {
-        ArrayList<T> retVal = new ArrayList<>(l);
-        retVal.addAll(k);
-        return retVal;
+    /**
+     * Same as {@link #toSequence()}, with the list of values presized for the given number of elements. In a parallel
+     * stream, only the list of the first split is presized, the others growing as needed.
+     * @param expectedSize expected number of tries in the stream
+     * @param <T> the type
+     * @return a {@link java.util.stream.Collector}
+     */
+    public static <T> Collector<Try<T>, ?, Try<List<T>>> toSequence(int expectedSize) {
+        final SizeHint hint = new SizeHint(expectedSize);
+        return Collector.of(() -> new Sequence<T>(hint.claim()),
+                            Sequence::add,
+                            Sequence::combine,
+                            sequence -> {
+                                hint.release();
+                                return sequence.toTry();
+                            });
+    }
+
+    /**
+     * Splits a stream of tries into a Pair of the exceptions of the failures and the values of the successes, in a
+     * single pass. Encounter order is kept on each side, also for parallel streams. The exceptions are on the left,
+     * as in {@link #toEither()}.
+     * @param <T> the type
+     * @return a {@link java.util.stream.Collector}
+     */
+    public static <T> Collector<Try<T>, ?, Pair<List<Exception>, List<T>>> partitioning() {
+        return Collector.of(() -> new Pair<List<Exception>, List<T>>(new ArrayList<>(), new ArrayList<>()),
+                            (pair, t) -> {
+                                if (t instanceof Success) {
+                                    pair.getRight().add(((Success<T>) t).get());
+                                } else {
+                                    pair.getLeft().add(((Failure<T>) t).getException());
+                                }
+                            },
+                            (first, second) -> {
+                                first.getLeft().addAll(second.getLeft());
+                                first.getRight().addAll(second.getRight());
+                                return first;
+                            });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Try<List<T>> failed(Try<T> failure) {
+        return (Try<List<T>>) (Try<?>) failure;
+    }
+
+    private static final class Sequence<T> {
+
+        private final List<T> values;
+
+        private Try<T> failure;
+
+        Sequence(int expectedSize) {
+            this.values = new ArrayList<>(expectedSize);
+        }
+
+        void add(Try<T> t) {
+            if (failure != null) {
+                return;
+            }
+            if (t instanceof Failure) {
+                failure = t;
+            } else {
+                values.add(((Success<T>) t).get());
+            }
+        }
+
+        Sequence<T> combine(Sequence<T> other) {
+            if (failure == null && other.failure != null) {
+                failure = other.failure;
+            } else if (failure == null) {
+                values.addAll(other.values);
+            }
+            return this;
+        }
+
+        Try<List<T>> toTry() {
+            if (failure != null) {
+                return failed(failure);
+            }
+            if (values.isEmpty()) {
+                return Try.failure(new IllegalArgumentException("Cannot sequence an empty stream"));
+            }
+            return new Success<>(values);
+        }
+
     }
 
 }
@@ -0,0 +1,175 @@
+package no.finn.lambdacompanion;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator grouping the elements of a source spliterator into windows of size elements, one window starting every
+ * step elements: chunks when step equals size, sliding windows when step is smaller.
+ * <p>
+ * When the source splits into sized halves, the prefix is completed with the few elements its last window needs from
+ * the suffix, so both halves keep starting on a window boundary and the stream still partitions well in parallel.
+ * No more than one window is ever buffered per split. Unsized sources are not split.
+ *
+ * @param <T> t
+ */
+final class WindowSpliterator<T> implements Spliterator<List<T>> {
+
+    private final Spliterator<T> source;
+
+    private final int size;
+
+    private final int step;
+
+    private final boolean partial;
+
+    private Deque<T> pending;
+
+    private final Iterator<T> tail;
+
+    private int tailSize;
+
+    private long skip;
+
+    private final Deque<T> window;
+
+    private T pulled;
+
+    /**
+     * @param source source spliterator
+     * @param size number of elements per window
+     * @param step number of elements between the starts of two windows
+     * @param partial whether the last window is emitted if it has fewer than size elements
+     */
+    WindowSpliterator(final Spliterator<T> source, final int size, final int step, final boolean partial) {
+        this(new ArrayDeque<>(), source, Collections.emptyList(), 0, size, step, partial);
+    }
+
+    private WindowSpliterator(final Deque<T> pending, final Spliterator<T> source, final List<T> tail, final long skip,
+                              final int size, final int step, final boolean partial) {
+        if (size < 1 || step < 1) {
+            throw new IllegalArgumentException("Window size and step must be positive, got " + size + " and " + step);
+        }
+        this.pending = pending;
+        this.source = source;
+        this.tail = tail.iterator();
+        this.tailSize = tail.size();
+        this.skip = skip;
+        this.size = size;
+        this.step = step;
+        this.partial = partial;
+        this.window = new ArrayDeque<>(Math.min(size, 1024));
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super List<T>> action) {
+        while (skip > 0) {
+            if (!pull()) {
+                return false;
+            }
+            skip--;
+        }
+        while (window.size() < size && pull()) {
+            window.addLast(pulled);
+        }
+        pulled = null;
+        if (window.isEmpty() || window.size() < size && !partial) {
+            window.clear();
+            return false;
+        }
+        final List<T> emitted = new ArrayList<>(window);
+        if (step >= size) {
+            window.clear();
+            skip = step - size;
+        } else {
+            for (int i = 0; i < step && !window.isEmpty(); i++) {
+                window.pollFirst();
+            }
+        }
+        action.accept(emitted);
+        return true;
+    }
+
+    @Override
+    public Spliterator<List<T>> trySplit() {
+        if (!source.hasCharacteristics(Spliterator.SUBSIZED)) {
+            return null;
+        }
+        final Spliterator<T> prefixSource = source.trySplit();
+        if (prefixSource == null) {
+            return null;
+        }
+        // elements already pulled for the current window come first, and stay with the prefix
+        final Deque<T> head = new ArrayDeque<>(window);
+        head.addAll(pending);
+        window.clear();
+        pending = new ArrayDeque<>();
+        final long length = head.size() + prefixSource.getExactSizeIfKnown();
+        if (length <= skip) {
+            final Spliterator<List<T>> prefix = new WindowSpliterator<>(head, prefixSource, Collections.emptyList(),
+                                                                        skip, size, step, partial);
+            skip -= length;
+            return prefix;
+        }
+        final long lastStart = skip + (length - 1 - skip) / step * step;
+        final List<T> borrowed = new ArrayList<>();
+        for (long i = length; i < lastStart + size && pull(); i++) {
+            borrowed.add(pulled);
+        }
+        pulled = null;
+        final Spliterator<List<T>> prefix = new WindowSpliterator<>(head, prefixSource, borrowed, skip, size, step,
+                                                                    partial);
+        final long offset = lastStart + step - length;
+        if (offset < borrowed.size()) {
+            pending.addAll(borrowed.subList((int) offset, borrowed.size()));
+            skip = 0;
+        } else {
+            skip = offset - borrowed.size();
+        }
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        final long sourceSize = source.estimateSize();
+        if (sourceSize == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        final long length = window.size() + pending.size() + sourceSize + tailSize - skip;
+        if (length <= 0) {
+            return 0;
+        }
+        if (partial) {
+            return (length + step - 1) / step;
+        }
+        return length < size ? 0 : (length - size) / step + 1;
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics() & (ORDERED | SIZED | SUBSIZED | IMMUTABLE | CONCURRENT) | NONNULL;
+    }
+
+    private boolean pull() {
+        if (!pending.isEmpty()) {
+            pulled = pending.pollFirst();
+            return true;
+        }
+        if (source.tryAdvance(t -> pulled = t)) {
+            return true;
+        }
+        if (tail.hasNext()) {
+            pulled = tail.next();
+            tailSize--;
+            return true;
+        }
+        return false;
+    }
+
+}
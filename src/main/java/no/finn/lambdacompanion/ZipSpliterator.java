@@ -0,0 +1,80 @@
+package no.finn.lambdacompanion;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Spliterator pairing the elements of two spliterators in encounter order, ending with the shorter one.
+ * <p>
+ * When both sides are SUBSIZED, they are split in lockstep: if both prefixes have the same size, which is the case for
+ * sources of equal size splitting in halves (arrays, lists, ranges...), they are zipped together. Otherwise the split
+ * is undone by chaining each prefix back in front of its side, without buffering anything, and no further split is
+ * attempted.
+ *
+ * @param <T> type of the left elements
+ * @param <U> type of the right elements
+ */
+final class ZipSpliterator<T, U> implements Spliterator<Pair<T, U>> {
+
+    private Spliterator<T> left;
+
+    private Spliterator<U> right;
+
+    private boolean splittable = true;
+
+    private T pulled;
+
+    ZipSpliterator(final Spliterator<T> left, final Spliterator<U> right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super Pair<T, U>> action) {
+        if (!left.tryAdvance(t -> pulled = t)) {
+            return false;
+        }
+        final T t = pulled;
+        pulled = null;
+        return right.tryAdvance(u -> action.accept(new Pair<>(t, u)));
+    }
+
+    @Override
+    public Spliterator<Pair<T, U>> trySplit() {
+        if (!splittable || !left.hasCharacteristics(SUBSIZED) || !right.hasCharacteristics(SUBSIZED)) {
+            return null;
+        }
+        final Spliterator<T> leftPrefix = left.trySplit();
+        if (leftPrefix == null) {
+            return null;
+        }
+        final Spliterator<U> rightPrefix = right.trySplit();
+        if (rightPrefix != null && leftPrefix.getExactSizeIfKnown() == rightPrefix.getExactSizeIfKnown()) {
+            return new ZipSpliterator<>(leftPrefix, rightPrefix);
+        }
+        splittable = false;
+        left = concat(leftPrefix, left);
+        if (rightPrefix != null) {
+            right = concat(rightPrefix, right);
+        }
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Math.min(left.estimateSize(), right.estimateSize());
+    }
+
+    @Override
+    public int characteristics() {
+        return left.characteristics() & right.characteristics() & (ORDERED | SIZED | SUBSIZED | IMMUTABLE | CONCURRENT)
+                | NONNULL;
+    }
+
+    private static <E> Spliterator<E> concat(final Spliterator<E> first, final Spliterator<E> second) {
+        return Stream.concat(StreamSupport.stream(first, false), StreamSupport.stream(second, false)).spliterator();
+    }
+
+}
@@ -0,0 +1,99 @@
+package no.finn.lambdacompanion
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+import spock.lang.Specification
+
+class AsyncTrySpec extends Specification {
+
+    def executor = Executors.newFixedThreadPool(4)
+
+    def cleanup() {
+        executor.shutdownNow()
+    }
+
+    def "stages run on the given executor and yield a Success"() {
+        given:
+        def threads = [].asSynchronized()
+        when:
+        def actual = AsyncTry.of({ -> threads << Thread.currentThread(); "3" } as ThrowingSupplier, executor)
+                             .map({ String s -> threads << Thread.currentThread(); Integer.parseInt(s) })
+                             .flatMap({ i -> AsyncTry.of(Try.success(i * 2), executor) })
+                             .join()
+        then:
+        actual == new Success<>(6)
+        !threads.contains(Thread.currentThread())
+    }
+
+    def "a failing stage yields a Failure and skips the following stages"() {
+        given:
+        def peeked = []
+        when:
+        def actual = AsyncTry.of({ -> "blargh" } as ThrowingSupplier, executor)
+                             .map({ String s -> Integer.parseInt(s) })
+                             .map({ i -> i * 2 })
+                             .peekFailure({ f -> peeked << f.getException() })
+                             .recover({ i -> "ok" }, { e -> e.class.simpleName })
+                             .get(1, TimeUnit.SECONDS)
+        then:
+        actual == "NumberFormatException"
+        peeked.size() == 1
+    }
+
+    def "orElse completes with the fallback value on Failure"() {
+        expect:
+        AsyncTry.of(Try.failure(new IOException("floppy drive way too busy")), executor).orElse("fallback").get() == "fallback"
+    }
+
+    def "orElse runs on the given executor"() {
+        given:
+        def single = Executors.newSingleThreadExecutor()
+        def latch = new CountDownLatch(1)
+        single.execute({ -> latch.await(1, TimeUnit.SECONDS) })
+        when:
+        def fallback = AsyncTry.of(Try.failure(new IOException("floppy drive way too busy")), single).orElse("fallback")
+        then:
+        !fallback.isDone()
+        when:
+        latch.countDown()
+        then:
+        fallback.get(1, TimeUnit.SECONDS) == "fallback"
+        cleanup:
+        single.shutdownNow()
+    }
+
+    def "started AsyncTry run concurrently"() {
+        given:
+        def latch = new CountDownLatch(2)
+        def waitForBoth = { -> latch.countDown(); latch.await(1, TimeUnit.SECONDS) } as ThrowingSupplier
+        when:
+        def first = AsyncTry.of(waitForBoth, executor)
+        def second = AsyncTry.of(waitForBoth, executor)
+        then:
+        first.join() == new Success<>(true)
+        second.join() == new Success<>(true)
+    }
+
+    def "converts from and to a CompletableFuture"() {
+        given:
+        def source = new CompletableFuture<String>()
+        def asyncTry = AsyncTry.of(source, executor)
+        def target = asyncTry.map({ String s -> s.length() }).toCompletableFuture()
+        when:
+        source.completeExceptionally(new IllegalStateException("nope"))
+        target.join()
+        then:
+        def e = thrown(CompletionException)
+        e.cause instanceof IllegalStateException
+        asyncTry.join() instanceof Failure
+    }
+
+    def "the default executor runs the supplier"() {
+        expect:
+        AsyncTry.of({ -> 42 } as ThrowingSupplier).join() == new Success<>(42)
+    }
+}
@@ -0,0 +1,135 @@
+package no.finn.lambdacompanion
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.Executors
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.ScheduledThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+
+import spock.lang.Specification
+
+class BatchLoaderSpec extends Specification {
+
+    def executor = Executors.newScheduledThreadPool(2)
+
+    def calls = new CopyOnWriteArrayList<List<Integer>>()
+
+    def doubling = { List<Integer> keys ->
+        calls.add(keys)
+        keys.findAll { it >= 0 }.collectEntries { [(it): it * 2] }
+    } as ThrowingFunction
+
+    def cleanup() {
+        executor.shutdownNow()
+    }
+
+    def "loads are coalesced into one bulk call after the maximum wait"() {
+        given:
+        def loader = BatchLoader.of(doubling, executor, 100, 20, TimeUnit.MILLISECONDS)
+        when:
+        def results = [1, 2, 3, 2].collect { loader.load(it) }.collect { it.join() }
+        then:
+        results == [new Success<>(2), new Success<>(4), new Success<>(6), new Success<>(4)]
+        calls == [[1, 2, 3]]
+        loader.requests == 4
+        loader.batches == 1
+    }
+
+    def "a full batch is dispatched without waiting"() {
+        given:
+        def loader = BatchLoader.of(doubling, executor, 2, 1, TimeUnit.HOURS)
+        when:
+        def loading = (1..5).collect { loader.load(it) }
+        loader.dispatch()
+        def results = loading.collect { it.join() }
+        then:
+        results == (1..5).collect { new Success<>(it * 2) }
+        calls as Set == [[1, 2], [3, 4], [5]] as Set
+    }
+
+    def "a key missing from the bulk result gets its own failure"() {
+        given:
+        def loader = BatchLoader.of(doubling, executor, 10, 1, TimeUnit.HOURS)
+        when:
+        def results = loader.loadAll([1, -1])
+        then:
+        results[1] == new Success<>(2)
+        results[-1].recover({ v -> null }, { e -> e.class }) == NoSuchElementException
+        calls.size() == 1
+    }
+
+    def "a failing bulk call fails every key of the batch"() {
+        given:
+        def exception = new IOException("database down")
+        def loader = BatchLoader.of({ List<Integer> keys -> throw exception } as ThrowingFunction, executor, 10, 1, TimeUnit.HOURS)
+        when:
+        def results = loader.loadAll([1, 2, 3])
+        then:
+        results.values().every { it.recover({ v -> null }, { e -> e }).is(exception) }
+    }
+
+    def "a failing bulk call is observed once, not once per key"() {
+        given:
+        def monitor = FailureMonitor.create(1000, 10).install()
+        def loader = BatchLoader.of({ List<Integer> keys -> throw new IOException("database down") } as ThrowingFunction, executor, 10, 1, TimeUnit.HOURS)
+        when:
+        def results = loader.loadAll([1, 2, 3])
+        then:
+        results.values().every { it instanceof Failure }
+        monitor.getCount(IOException) == 1
+        monitor.total == 1
+        cleanup:
+        monitor.uninstall()
+    }
+
+    def "a rejected batch timer leaves the loader usable"() {
+        given:
+        def stopped = Executors.newScheduledThreadPool(1)
+        stopped.shutdown()
+        def loader = BatchLoader.of(doubling, stopped, 10, 1, TimeUnit.HOURS)
+        when:
+        loader.load(1)
+        then:
+        thrown(RejectedExecutionException)
+        when:
+        loader.load(2)
+        then:
+        thrown(RejectedExecutionException)
+        when:
+        loader.dispatch()
+        then:
+        notThrown(Exception)
+    }
+
+    def "a rejected bulk call fails every key of the batch"() {
+        given:
+        def rejecting = new ScheduledThreadPoolExecutor(1) {
+            @Override
+            void execute(Runnable command) {
+                throw new RejectedExecutionException("saturated")
+            }
+        }
+        def loader = BatchLoader.of(doubling, rejecting, 2, 1, TimeUnit.HOURS)
+        when:
+        def results = [1, 2].collect { loader.load(it) }.collect { it.join() }
+        then:
+        results.every { it.recover({ v -> null }, { e -> e.class }) == RejectedExecutionException }
+        calls.empty
+        cleanup:
+        rejecting.shutdownNow()
+    }
+
+    def "concurrent loads are coalesced"() {
+        given:
+        def loader = BatchLoader.of(doubling, executor, 1000, 50, TimeUnit.MILLISECONDS)
+        def pool = Executors.newFixedThreadPool(8)
+        when:
+        def futures = (0..<100).collect { i -> pool.submit({ loader.load(i) } as java.util.concurrent.Callable) }
+        def results = futures.collect { it.get().join() }
+        then:
+        results == (0..<100).collect { new Success<>(it * 2) }
+        loader.batches <= 2
+        cleanup:
+        pool.shutdownNow()
+    }
+}
@@ -0,0 +1,28 @@
+package no.finn.lambdacompanion
+
+import spock.lang.Specification
+
+class DoubleTrySpec extends Specification {
+
+    def "a successful chain keeps a primitive value"() {
+        when:
+        def actual = Try.success("2.5").mapToDouble({ String s -> Double.parseDouble(s) } as ThrowingToDoubleFunction)
+                        .map({ double d -> d * 2 } as ThrowingDoubleUnaryOperator)
+        then:
+        actual == DoubleTry.success(5d)
+        actual.toOptional() == OptionalDouble.of(5d)
+    }
+
+    def "a failing function yields a failure"() {
+        when:
+        def actual = DoubleTry.of({ -> throw new IOException("nope") } as ThrowingDoubleSupplier)
+        then:
+        actual.orElse(1.5d) == 1.5d
+        actual.recover({ d -> d }, { e -> -1d }) == -1d
+    }
+
+    def "NaN equals NaN"() {
+        expect:
+        DoubleTry.success(Double.NaN) == DoubleTry.success(Double.NaN)
+    }
+}
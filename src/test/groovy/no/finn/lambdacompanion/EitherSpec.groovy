@@ -595,4 +595,65 @@ class EitherSpec extends Specification {
         res.fold(Function.identity(), Function.identity()) == null
     }
 
+    def "map is applied on a Right and skipped on a Left"() {
+        given:
+        final Either<String, Integer> right = Either.right(21)
+        final Either<String, Integer> left = Either.left("nope")
+        def twice = { Integer i -> i * 2 } as Function
+        expect:
+        right.map(twice) == Either.right(42)
+        left.map(twice).is(left)
+    }
+
+    def "flatMap is applied on a Right and skipped on a Left"() {
+        given:
+        final Either<String, Integer> right = Either.right(21)
+        final Either<String, Integer> left = Either.left("nope")
+        def halve = { Integer i -> i % 2 == 0 ? Either.right(i / 2) : Either.left("odd") } as Function
+        expect:
+        right.flatMap(halve) == Either.left("odd")
+        left.flatMap(halve).is(left)
+    }
+
+    def "getOrElse gets the right value or the fallback"() {
+        expect:
+        Either.right("value").getOrElse("fallback") == "value"
+        Either.left(1).getOrElse("fallback") == "fallback"
+    }
+
+    def "orElseThrow gets the right value or throws the mapped left value"() {
+        when:
+        def value = Either.right("value").orElseThrow({ l -> new IOException(l) } as Function)
+        then:
+        value == "value"
+        when:
+        Either.left("floppy drive way too busy").orElseThrow({ l -> new IOException(l) } as Function)
+        then:
+        def e = thrown(IOException)
+        e.message == "floppy drive way too busy"
+    }
+
+    def "orElseThrow gets a null right value"() {
+        expect:
+        Either.right(null).orElseThrow({ l -> new IOException() } as Function) == null
+        Either.right(null).right().orElseThrow({ l -> new IOException() } as Function) == null
+    }
+
+    def "peek only consumes a right value"() {
+        given:
+        def consumed = []
+        def consumer = { r -> consumed << r } as Consumer
+        when:
+        Either.right("value").peek(consumer)
+        Either.left("nope").peek(consumer)
+        then:
+        consumed == ["value"]
+    }
+
+    def "swap turns a Left into a Right and a Right into a Left"() {
+        expect:
+        Either.left("l").swap() == Either.right("l")
+        Either.right("r").swap() == Either.left("r")
+    }
+
 }
@@ -1,5 +1,20 @@
 package no.finn.lambdacompanion
 
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.Executors
+import java.util.concurrent.ForkJoinTask
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.BiFunction
+import java.util.function.BinaryOperator
+import java.util.function.Consumer
+import java.util.function.Function
+import java.util.function.IntBinaryOperator
+import java.util.function.Predicate
+import java.util.function.ToLongFunction
+import java.util.function.UnaryOperator
+import java.util.stream.Stream
+
 import spock.lang.Specification
 
 class ExtendedStreamSpec extends Specification {
@@ -22,6 +37,56 @@ class ExtendedStreamSpec extends Specification {
         ["h", "e", "l", "l", "o", " ", "w", "o", "r", "l", "d"] | StreamableOptional.of("d")
     }
 
+    def "Find last only traverses the last chunk of a sized stream"() {
+        given:
+        def visited = 0
+        def stream = ExtendedStream.of(source.parallelStream()).map({ i -> i * 2 }).peek({ i -> visited++ })
+
+        when:
+        def last = stream.findLast()
+
+        then:
+        last == StreamableOptional.of(199998)
+        visited < 10
+
+        where:
+        source << [(0..99999).toList(), (0..99999).toArray(new Integer[0]) as List, new ArrayDeque((0..99999))]
+    }
+
+    def "Find last does not switch sequential pipelines to parallel"() {
+        given:
+        def threads = [] as Set
+        def stream = ExtendedStream.of((0..99999).toList().reverse().stream()).peek({ i -> threads << Thread.currentThread() }).sorted()
+
+        when:
+        def last = stream.findLast()
+
+        then:
+        last == StreamableOptional.of(99999)
+        threads == [Thread.currentThread()] as Set
+        !stream.isParallel()
+    }
+
+    def "Find last on sources that do not split in halves"() {
+        expect:
+        ExtendedStream.of(new LinkedList((0..99999)).stream()).findLast() == StreamableOptional.of(99999)
+        ExtendedStream.of(new LinkedList((0..99999)).parallelStream()).map({ i -> i + 1 }).findLast() == StreamableOptional.of(100000)
+        ExtendedStream.of([1, 2].parallelStream()).filter({ i -> i < 2 }).findLast() == StreamableOptional.of(1)
+    }
+
+    def "Find last traverses unsized streams entirely"() {
+        given:
+        def visited = 0
+        def stream = ExtendedStream.of((0..99999).toList().stream()).filter({ i -> i < 50000 }).peek({ i -> visited++ })
+
+        when:
+        def last = stream.findLast()
+
+        then:
+        last == StreamableOptional.of(49999)
+        visited == 50000
+    }
+
     def "Flat map optional returns present only"() {
         given:
         def stream = ExtendedStream.of((0..10).stream())
@@ -44,4 +109,572 @@ class ExtendedStreamSpec extends Specification {
         "Hello World!".getChars() as List == chars.toList()
     }
 
+    def "Folds keep their order"() {
+        given:
+        def concat = { a, b -> a + " " + b } as BiFunction
+
+        expect:
+        ExtendedStream.of(["a", "b", "c"].stream()).foldRight(concat, "") == "a b c "
+        ExtendedStream.of(["a", "b", "c"].stream()).foldLeft(concat, "") == "c b a "
+        ExtendedStream.of(["a", "b", "c"].parallelStream()).foldLeft(concat, "") == "c b a "
+    }
+
+    def "Folds stop pulling from an infinite stream limited downstream"() {
+        given:
+        def sum = { Integer a, Long b -> b + a } as BiFunction
+
+        expect:
+        ExtendedStream.of(Stream.iterate(1, { i -> i + 1 } as UnaryOperator)).limit(100000).foldLeft(sum, 0L) == 5000050000L
+        ExtendedStream.of(Stream.iterate(1, { i -> i + 1 } as UnaryOperator)).limit(100000).foldRight(sum, 0L) == 5000050000L
+    }
+
+    def "Folds keep close handlers"() {
+        given:
+        def closed = 0
+        def sum = { Integer a, Long b -> b + a } as BiFunction
+        def stream = ExtendedStream.of([1, 2, 3].stream()).onClose({ closed++ })
+
+        when:
+        def result = stream.foldLeft(sum, 0L)
+        stream.close()
+
+        then:
+        result == 6L
+        closed == 1
+    }
+
+    def "Chunked groups elements in encounter order"() {
+        expect:
+        ExtendedStream.of(elements.stream()).chunked(3).toList() == expected
+
+        where:
+        elements | expected
+        []       | []
+        [1, 2]   | [[1, 2]]
+        1..6     | [[1, 2, 3], [4, 5, 6]]
+        1..7     | [[1, 2, 3], [4, 5, 6], [7]]
+    }
+
+    def "Chunked parallel streams split on chunk boundaries"() {
+        given:
+        def source = (0..<count).toList()
+        def expected = source.collate(size)
+
+        when:
+        def spliterator = ExtendedStream.of(source.parallelStream()).chunked(size).spliterator()
+
+        then:
+        spliterator.hasCharacteristics(java.util.Spliterator.SIZED)
+        spliterator.exactSizeIfKnown == expected.size()
+        ExtendedStream.of(source.parallelStream()).chunked(size).toList() == expected
+
+        where:
+        count | size
+        1000  | 7
+        1000  | 1
+        1000  | 1000
+        1001  | 10
+        10    | 64
+    }
+
+    def "Sliding emits full windows only"() {
+        expect:
+        ExtendedStream.of((1..7).stream()).sliding(size, step).toList() == expected
+
+        where:
+        size | step || expected
+        3    | 1    || [[1, 2, 3], [2, 3, 4], [3, 4, 5], [4, 5, 6], [5, 6, 7]]
+        3    | 2    || [[1, 2, 3], [3, 4, 5], [5, 6, 7]]
+        2    | 3    || [[1, 2], [4, 5]]
+        8    | 1    || []
+    }
+
+    def "Sliding parallel streams give the same windows as sequential ones"() {
+        given:
+        def source = (0..<count).toList()
+        def expected = ExtendedStream.of(source.stream()).sliding(size, step).toList()
+
+        expect:
+        ExtendedStream.of(source.parallelStream()).sliding(size, step).toList() == expected
+        ExtendedStream.of(source.parallelStream()).sliding(size, step).count() == expected.size()
+        expected.size() == (count < size ? 0 : (count - size).intdiv(step) + 1)
+
+        where:
+        count | size | step
+        1000  | 5    | 1
+        1000  | 5    | 3
+        1000  | 3    | 7
+        1000  | 100  | 99
+        999   | 10   | 10
+        4     | 5    | 1
+    }
+
+    def "Chunked pulls lazily from an infinite stream"() {
+        expect:
+        ExtendedStream.of(Stream.iterate(1, { i -> i + 1 } as UnaryOperator)).chunked(2).limit(2).toList() == [[1, 2], [3, 4]]
+    }
+
+    def "For each chunk returns the number of elements consumed"() {
+        given:
+        def chunks = []
+
+        when:
+        def result = ExtendedStream.of((1..5).stream()).forEachChunk(2, { chunk -> chunks << chunk } as ThrowingConsumer)
+
+        then:
+        result == new Success<>(5L)
+        chunks == [[1, 2], [3, 4], [5]]
+    }
+
+    def "For each chunk stops at the first failure"() {
+        given:
+        def chunks = []
+
+        when:
+        def result = ExtendedStream.of((1..5).stream()).forEachChunk(2, { chunk ->
+            if (chunk.contains(3)) {
+                throw new IOException("write failed")
+            }
+            chunks << chunk
+        } as ThrowingConsumer)
+
+        then:
+        result.recover({ v -> null }, { e -> e.message }) == "write failed"
+        chunks == [[1, 2]]
+    }
+
+    def "Zip pairs elements up to the shorter stream"() {
+        expect:
+        ExtendedStream.of(left.stream()).zip(right.stream()).toList() == expected
+
+        where:
+        left            | right      || expected
+        [1, 2, 3]       | ["a", "b"] || [new Pair<>(1, "a"), new Pair<>(2, "b")]
+        [1]             | ["a", "b"] || [new Pair<>(1, "a")]
+        []              | ["a"]      || []
+    }
+
+    def "Zip splits sized streams in lockstep"() {
+        given:
+        def left = (0..<count).toList()
+        def right = (0..<rightCount).collect { it * 2 }
+
+        when:
+        def spliterator = ExtendedStream.of(left.parallelStream()).zip(right.stream()).spliterator()
+        def zipped = ExtendedStream.of(left.parallelStream()).zip(right.parallelStream()).toList()
+
+        then:
+        spliterator.exactSizeIfKnown == Math.min(count, rightCount)
+        zipped == (0..<Math.min(count, rightCount)).collect { new Pair<>(it, it * 2) }
+
+        where:
+        count  | rightCount
+        10000  | 10000
+        10000  | 9999
+        10000  | 3
+        7      | 10000
+    }
+
+    def "Zip with index pairs elements with their position"() {
+        expect:
+        ExtendedStream.of(["a", "b", "c"].stream()).zipWithIndex().toList() == [new Pair<>("a", 0L), new Pair<>("b", 1L), new Pair<>("c", 2L)]
+        ExtendedStream.of(["a", "b"].stream()).indexed().toList() == [new LongObjPair<>(0L, "a"), new LongObjPair<>(1L, "b")]
+    }
+
+    def "Indices of parallel streams follow encounter order"() {
+        given:
+        def source = (0..<100000).toList()
+
+        when:
+        def indexed = ExtendedStream.of(source.parallelStream()).map({ i -> i * 3 }).indexed()
+
+        then:
+        indexed.allMatch({ pair -> pair.right == pair.left * 3 } as java.util.function.Predicate)
+    }
+
+    def "Parallel streams given a pool run their terminal operations inside it"() {
+        given:
+        def pool = new ForkJoinPool(3)
+        def pools = Collections.newSetFromMap(new ConcurrentHashMap())
+        def stream = ExtendedStream.of((0..<10000).toList().stream())
+                                   .parallel(pool)
+                                   .map({ i -> i * 2 })
+                                   .peek({ i -> pools.add(Optional.ofNullable(ForkJoinTask.pool)) })
+
+        when:
+        def sum = stream.reduce(0, { a, b -> a + b } as BinaryOperator)
+
+        then:
+        sum == 99990000
+        pools == [Optional.of(pool)] as Set
+
+        cleanup:
+        pool.shutdown()
+    }
+
+    def "Pool is kept through intermediate operations and folds"() {
+        given:
+        def pool = new ForkJoinPool(2)
+        def threads = Collections.newSetFromMap(new ConcurrentHashMap())
+        def sum = { Integer a, Long b -> b + a } as BiFunction
+
+        when:
+        def result = ExtendedStream.of((1..1000).toList().stream())
+                                   .parallel(pool)
+                                   .filter({ i -> i % 2 == 0 })
+                                   .peek({ i -> threads.add(ForkJoinTask.pool.is(pool)) })
+                                   .foldLeft(sum, 0L)
+
+        then:
+        result == 250500L
+        threads == [true] as Set
+
+        cleanup:
+        pool.shutdown()
+    }
+
+    def "Find last, for each chunk and iterators of a stream given a pool run inside it"() {
+        given:
+        def pool = new ForkJoinPool(2)
+        def pools = Collections.newSetFromMap(new ConcurrentHashMap())
+        def source = (0..<10000).toList()
+        def inPool = { -> ExtendedStream.of(source.stream()).parallel(pool).peek({ i -> pools.add(Optional.ofNullable(ForkJoinTask.pool)) }) }
+
+        when:
+        def last = inPool().sorted().findLast()
+        def consumed = inPool().forEachChunk(100, { chunk -> pools.add(Optional.ofNullable(ForkJoinTask.pool)) } as ThrowingConsumer)
+        def iterated = inPool().sorted().iterator().collect()
+        def traversed = []
+        inPool().sorted().spliterator().forEachRemaining({ i -> traversed << i } as Consumer)
+
+        then:
+        last == StreamableOptional.of(9999)
+        consumed == new Success<>(10000L)
+        iterated == source
+        traversed == source
+        pools == [Optional.of(pool)] as Set
+
+        cleanup:
+        pool.shutdown()
+    }
+
+    def "Exceptions of a pipeline run in a pool are rethrown"() {
+        given:
+        def pool = new ForkJoinPool(2)
+
+        when:
+        ExtendedStream.of((1..1000).toList().stream())
+                      .parallel(pool)
+                      .map({ i -> if (i == 500) { throw new IllegalStateException("boom") }; i })
+                      .toList()
+
+        then:
+        thrown(IllegalStateException)
+
+        cleanup:
+        pool.shutdown()
+    }
+
+    def "Map concurrent keeps encounter order and bounds the mappings in flight"() {
+        given:
+        def executor = Executors.newCachedThreadPool()
+        def running = new AtomicInteger()
+        def maxRunning = new AtomicInteger()
+        def slowDouble = { Integer i ->
+            maxRunning.accumulateAndGet(running.incrementAndGet(), { a, b -> Math.max(a, b) } as IntBinaryOperator)
+            Thread.sleep(i % 3 * 5)
+            running.decrementAndGet()
+            i * 2
+        } as ThrowingFunction
+
+        when:
+        def results = ExtendedStream.of((0..<50).stream()).mapConcurrent(4, executor, slowDouble).toList()
+
+        then:
+        results == (0..<50).collect { new Success<>(it * 2) }
+        maxRunning.get() <= 4
+        maxRunning.get() > 1
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "Map concurrent turns exceptions into failures"() {
+        given:
+        def executor = Executors.newCachedThreadPool()
+        def failOnOdd = { Integer i -> if (i % 2) { throw new IOException("odd") }; i } as ThrowingFunction
+
+        when:
+        def results = ExtendedStream.of((0..<4).stream()).mapConcurrent(2, executor, failOnOdd).toList()
+
+        then:
+        results.collect { it.recover({ v -> v }, { e -> e.message }) } == [0, "odd", 2, "odd"]
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "Map concurrent only pulls upstream as slots free up"() {
+        given:
+        def executor = Executors.newCachedThreadPool()
+        def pulled = new AtomicInteger()
+        def stream = ExtendedStream.of(Stream.iterate(0, { i -> i + 1 } as UnaryOperator))
+                                   .peek({ i -> pulled.incrementAndGet() })
+                                   .mapConcurrent(3, executor, { i -> i } as ThrowingFunction)
+
+        when:
+        def first = stream.limit(5).toList()
+
+        then:
+        first == (0..<5).collect { new Success<>(it) }
+        pulled.get() <= 5 + 3
+
+        cleanup:
+        stream.close()
+        executor.shutdownNow()
+    }
+
+    def "Map concurrent unordered emits every result"() {
+        given:
+        def executor = Executors.newCachedThreadPool()
+        def sleepy = { Integer i -> Thread.sleep((10 - i) * 5); i } as ThrowingFunction
+
+        when:
+        def results = ExtendedStream.of((0..<10).stream()).mapConcurrentUnordered(10, executor, sleepy).toList()
+
+        then:
+        results.collect { it.orElse(-1) } as Set == (0..<10) as Set
+        results.first() != new Success<>(0)
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "Map concurrent runs on virtual threads, or requires an executor without them"() {
+        given:
+        def virtualThreads = !(AsyncTry.defaultExecutor() instanceof ForkJoinPool)
+        def results = null
+        def unsupported = null
+
+        when:
+        try {
+            results = ExtendedStream.of((1..3).stream()).mapConcurrent(2, { i -> i + 1 } as ThrowingFunction).toList()
+        } catch (UnsupportedOperationException e) {
+            unsupported = e
+        }
+
+        then:
+        virtualThreads ? results == [new Success<>(2), new Success<>(3), new Success<>(4)] : unsupported != null
+    }
+
+    def "Map concurrent ends with a single failure when the consuming thread is interrupted"() {
+        given:
+        def executor = Executors.newCachedThreadPool()
+        def mapped = new AtomicInteger()
+        def slow = { Integer i -> Thread.sleep(10_000); mapped.incrementAndGet(); i } as ThrowingFunction
+        def results = []
+
+        when:
+        Thread.currentThread().interrupt()
+        try {
+            results = ExtendedStream.of((0..<3).stream()).mapConcurrent(2, executor, slow).toList()
+        } finally {
+            Thread.interrupted()
+        }
+        def unorderedResults = []
+        Thread.currentThread().interrupt()
+        try {
+            unorderedResults = ExtendedStream.of((0..<3).stream()).mapConcurrentUnordered(2, executor, slow).toList()
+        } finally {
+            Thread.interrupted()
+        }
+
+        then:
+        results.size() == 1
+        results[0].recover({ v -> null }, { e -> e }) instanceof InterruptedException
+        unorderedResults.size() == 1
+        unorderedResults[0].recover({ v -> null }, { e -> e }) instanceof InterruptedException
+        mapped.get() == 0
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "Take while, take until and drop while split the stream at the first mismatch"() {
+        given:
+        def source = [1, 2, 3, 10, 4, 11]
+        def small = { i -> i < 5 } as Predicate
+        def large = { i -> i >= 5 } as Predicate
+
+        expect:
+        ExtendedStream.of(source.stream()).takeWhile(small).toList() == [1, 2, 3]
+        ExtendedStream.of(source.stream()).takeUntil(large).toList() == [1, 2, 3, 10]
+        ExtendedStream.of(source.stream()).dropWhile(small).toList() == [10, 4, 11]
+        ExtendedStream.of([].stream()).takeWhile(small).toList() == []
+        ExtendedStream.of([1, 2].stream()).takeUntil(large).toList() == [1, 2]
+        ExtendedStream.of([1, 2].stream()).dropWhile(small).toList() == []
+    }
+
+    def "Take while stops pulling from an infinite stream"() {
+        given:
+        def pulled = new AtomicInteger()
+        def stream = ExtendedStream.of(Stream.iterate(0, { i -> i + 1 } as UnaryOperator)).peek({ pulled.incrementAndGet() })
+
+        expect:
+        stream.takeWhile({ i -> i < 10 } as Predicate).count() == 10
+        pulled.get() == 11
+    }
+
+    def "Take while stops pulling in parallel ordered pipelines"() {
+        given:
+        def pulled = new AtomicInteger()
+        def source = ExtendedStream.of((0..<1000000).toList().parallelStream()).peek({ pulled.incrementAndGet() })
+
+        when:
+        def taken = source.takeWhile({ i -> i < 5000 } as Predicate).map({ i -> i * 2 }).toList()
+
+        then:
+        taken == (0..<5000).collect { it * 2 }
+        pulled.get() < 10000
+    }
+
+    def "Take while does not evaluate a parallel stateful upstream when built"() {
+        given:
+        def pulled = new AtomicInteger()
+        def source = ExtendedStream.of((1..1000).toList().parallelStream()).peek({ pulled.incrementAndGet() }).sorted()
+
+        when:
+        def taken = source.takeWhile({ i -> i <= 10 } as Predicate)
+
+        then:
+        pulled.get() == 0
+        taken.toList() == (1..10).toList()
+        pulled.get() == 1000
+    }
+
+    def "Drop while parallel pipelines keep encounter order"() {
+        given:
+        def source = (0..<100000).toList()
+
+        expect:
+        ExtendedStream.of(source.parallelStream()).dropWhile({ i -> i < 500 } as Predicate).map({ i -> i + 1 }).toList() == (501..100000).toList()
+        ExtendedStream.of(source.parallelStream()).takeUntil({ i -> i == 99998 } as Predicate).count() == 99999
+    }
+
+    def "Distinct by keeps the first element of each key"() {
+        given:
+        def words = ["apple", "avocado", "banana", "blueberry", "cherry"]
+
+        expect:
+        ExtendedStream.of(words.stream()).distinctBy({ w -> w.charAt(0) } as Function).toList() == ["apple", "banana", "cherry"]
+        ExtendedStream.of(words.stream()).distinctByLong({ w -> (long) w.length() } as ToLongFunction, 5).toList() == ["apple", "avocado", "banana", "blueberry"]
+    }
+
+    def "Distinct by long keeps every distinct key, zero and negative ones included"() {
+        given:
+        def keys = (-50000L..50000L).toList()
+
+        expect:
+        ExtendedStream.of((keys + keys).stream()).distinctByLong({ k -> k } as ToLongFunction, keys.size()).toList() == keys
+        ExtendedStream.of((keys + keys).parallelStream()).distinctByLong({ k -> k } as ToLongFunction, keys.size()).count() == keys.size()
+        ExtendedStream.of([0L, 0L, 1L].stream()).distinctByLong({ k -> k } as ToLongFunction, 2).toList() == [0L, 1L]
+    }
+
+    def "Distinct by long grows past the expected size"() {
+        given:
+        def keys = (1L..10000L).toList()
+
+        expect:
+        ExtendedStream.of((keys + keys).stream()).distinctByLong({ k -> k } as ToLongFunction, 10).toList() == keys
+        ExtendedStream.of((keys + keys).parallelStream()).distinctByLong({ k -> k } as ToLongFunction, 0).count() == keys.size()
+    }
+
+    def "Distinct by long rejects a negative expected size"() {
+        when:
+        ExtendedStream.of([1L].stream()).distinctByLong({ k -> k } as ToLongFunction, -1)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "Distinct approx never returns duplicates and drops few distinct elements"() {
+        given:
+        def source = (0..<100000).toList()
+
+        when:
+        def distinct = ExtendedStream.of((source + source).stream()).distinctApprox(100000, 0.01).toList()
+
+        then:
+        distinct.toSet().size() == distinct.size()
+        distinct.size() > 98000
+    }
+
+    def "Distinct approx by long key shares its filter between parallel splits"() {
+        given:
+        def source = (0L..<100000L).toList()
+
+        when:
+        def distinct = ExtendedStream.of((source + source + source).parallelStream()).distinctApprox({ k -> k } as ToLongFunction, 100000, 0.01).toList()
+
+        then:
+        distinct.size() > 98000
+        distinct.size() <= 100000 + 10
+    }
+
+    def "Distinct approx rejects invalid sizing"() {
+        when:
+        ExtendedStream.of([1].stream()).distinctApprox(expectedSize, fpp)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        expectedSize | fpp
+        0            | 0.01
+        100          | 0
+        100          | 1
+    }
+
+    def "Map try wraps each result in a try"() {
+        given:
+        def parse = { String s -> Integer.parseInt(s) } as ThrowingFunction
+
+        when:
+        def results = ExtendedStream.of(["1", "x", "3"].stream()).mapTry(parse).toList()
+
+        then:
+        results[0] == new Success<>(1)
+        results[1].recover({ v -> null }, { e -> e.class }) == NumberFormatException
+        results[2] == new Success<>(3)
+    }
+
+    def "Traverse collects the values or the failure"() {
+        given:
+        def parse = { String s -> Integer.parseInt(s) } as ThrowingFunction
+
+        expect:
+        ExtendedStream.of(["1", "2", "3"].stream()).traverse(parse) == new Success<>([1, 2, 3])
+        ExtendedStream.of(["1", "x", "3"].stream()).traverse(parse).recover({ v -> null }, { e -> e.class }) == NumberFormatException
+        ExtendedStream.of([].stream()).traverse(parse) instanceof Failure
+        ExtendedStream.of((1..100000).toList().parallelStream()).traverse({ i -> i * 2 } as ThrowingFunction).orElse([]) == (1..100000).collect { it * 2 }
+    }
+
+    def "Traverse stops every split of a parallel stream after the first failure"() {
+        given:
+        def mapped = new AtomicInteger()
+        def failing = { Integer i ->
+            if (mapped.incrementAndGet() == 100) {
+                throw new IOException("boom")
+            }
+            i
+        } as ThrowingFunction
+
+        when:
+        def result = ExtendedStream.of((1..100000).toList().parallelStream()).traverse(failing)
+
+        then:
+        result.recover({ v -> null }, { e -> e.message }) == "boom"
+        mapped.get() < 1000
+    }
+
 }
@@ -0,0 +1,217 @@
+package no.finn.lambdacompanion
+
+import java.lang.management.ManagementFactory
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import javax.management.ObjectName
+
+import spock.lang.Specification
+
+class FailureMonitorSpec extends Specification {
+
+    def cleanup() {
+        Try.setFailureObserver(null)
+    }
+
+    def "the observer is notified of every failure created"() {
+        given:
+        def seen = []
+        Try.setFailureObserver({ e -> seen << e } as FailureObserver)
+        def exception = new IOException("boom")
+
+        when:
+        Try.of({ throw exception } as ThrowingSupplier)
+        Try.failure(new IllegalStateException())
+        Try.of({ 42 } as ThrowingSupplier)
+
+        then:
+        seen.size() == 2
+        seen[0].is(exception)
+        seen[1] instanceof IllegalStateException
+    }
+
+    def "no observer is notified once removed"() {
+        given:
+        def seen = []
+        Try.setFailureObserver({ e -> seen << e } as FailureObserver)
+        Try.setFailureObserver(null)
+
+        when:
+        Try.failure(new IOException())
+
+        then:
+        seen.empty
+        Try.getFailureObserver() == null
+    }
+
+    def "an observer throwing does not prevent the failure from being created"() {
+        given:
+        Try.setFailureObserver({ e -> throw new IllegalStateException("observer") } as FailureObserver)
+
+        when:
+        def failure = Try.failure(new IOException("boom"))
+
+        then:
+        failure.exception.message == "boom"
+    }
+
+    def "failures are counted by exception class"() {
+        given:
+        def monitor = FailureMonitor.create(1000, 10).install()
+
+        when:
+        3.times { Try.failure(new IOException()) }
+        Try.failure(new IllegalArgumentException())
+
+        then:
+        monitor.total == 4
+        monitor.getCount(IOException) == 3
+        monitor.getCount(IllegalArgumentException) == 1
+        monitor.getCount(NullPointerException) == 0
+        monitor.countsByClass == ["java.io.IOException": 3L, "java.lang.IllegalArgumentException": 1L]
+
+        cleanup:
+        monitor.uninstall()
+    }
+
+    def "a failure converted between try types is observed once"() {
+        given:
+        def seen = []
+        Try.setFailureObserver({ e -> seen << e } as FailureObserver)
+        def executor = Executors.newSingleThreadExecutor()
+
+        when:
+        Try.failure(new IOException("boxed")).mapToInt({ s -> 1 } as ThrowingToIntFunction).asLongTry().toTry()
+        IntTry.of({ throw new IOException("primitive") } as ThrowingIntSupplier).asDoubleTry().mapToObj({ d -> d } as ThrowingDoubleFunction)
+        def exported = AsyncTry.of(Try.failure(new IOException("async")), executor).toCompletableFuture()
+        AsyncTry.of(exported, executor).join()
+        AsyncTry.of(CompletableFuture.supplyAsync({ -> throw new IllegalStateException("adapted") }, executor), executor).join()
+
+        then:
+        seen*.message == ["boxed", "primitive", "async", "adapted"]
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "failures are counted without losing any under contention"() {
+        given:
+        def monitor = FailureMonitor.create(100, 10).install()
+        def threads = 4
+        def executor = Executors.newFixedThreadPool(threads)
+        def start = new CountDownLatch(1)
+
+        when:
+        def tasks = (1..threads).collect {
+            executor.submit({
+                start.await()
+                10_000.times { Try.failure(new IllegalStateException()) }
+            })
+        }
+        start.countDown()
+        tasks*.get()
+
+        then:
+        monitor.getCount(IllegalStateException) == threads * 10_000
+
+        cleanup:
+        executor.shutdown()
+        monitor.uninstall()
+    }
+
+    def "the last sampled failures are kept, most recent first, and handed to the sink"() {
+        given:
+        def sunk = []
+        def monitor = FailureMonitor.create(1, 2, { e -> sunk << e } as FailureObserver).install()
+
+        when:
+        (1..3).each { Try.failure(new IOException("failure " + it)) }
+
+        then:
+        monitor.samples*.message == ["failure 3", "failure 2"]
+        monitor.sampledFailures.size() == 2
+        monitor.sampledFailures[0].startsWith("java.io.IOException: failure 3")
+        sunk*.message == ["failure 1", "failure 2", "failure 3"]
+
+        cleanup:
+        monitor.uninstall()
+    }
+
+    def "failures are sampled at roughly the given rate"() {
+        given:
+        def sampled = 0
+        def monitor = FailureMonitor.create(10, 0, { e -> sampled++ } as FailureObserver).install()
+
+        when:
+        10_000.times { Try.failure(new IOException()) }
+
+        then:
+        sampled > 500
+        sampled < 1500
+
+        cleanup:
+        monitor.uninstall()
+    }
+
+    def "reset clears the counters and the samples"() {
+        given:
+        def monitor = FailureMonitor.create(1, 5).install()
+        Try.failure(new IOException())
+
+        when:
+        monitor.reset()
+
+        then:
+        monitor.total == 0
+        monitor.samples.empty
+
+        cleanup:
+        monitor.uninstall()
+    }
+
+    def "an installed monitor is exposed over JMX until uninstalled"() {
+        given:
+        def server = ManagementFactory.platformMBeanServer
+        def name = new ObjectName("no.finn.lambdacompanion:type=FailureMonitor")
+        def monitor = FailureMonitor.create(1, 5).install()
+
+        when:
+        Try.failure(new IOException())
+
+        then:
+        server.getAttribute(name, "Total") == 1L
+        server.getAttribute(name, "SampledFailures").length == 1
+
+        when:
+        monitor.uninstall()
+
+        then:
+        !server.isRegistered(name)
+        Try.getFailureObserver() == null
+    }
+
+    def "uninstalling a monitor that was replaced leaves the current observer in place"() {
+        given:
+        def first = FailureMonitor.create(1, 1).install()
+        def second = FailureMonitor.create(1, 1).install()
+
+        when:
+        first.uninstall()
+
+        then:
+        Try.getFailureObserver().is(second)
+
+        cleanup:
+        second.uninstall()
+    }
+
+    def "invalid sampling is rejected"() {
+        when:
+        FailureMonitor.create(0, 10)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+}
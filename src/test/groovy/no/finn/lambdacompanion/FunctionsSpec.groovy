@@ -29,6 +29,33 @@ class FunctionsSpec extends Specification {
         res == "foldl now world Hello "
     }
 
+    def "Folds run in constant stack on large lists"() {
+        given:
+        def sum = { Integer a, Long b -> b + a } as BiFunction
+        def values = (1..200000).toList()
+
+        expect:
+        Functions.foldLeft(sum, 0L, values) == 20000100000L
+        Functions.foldRight(sum, 0L, values) == 20000100000L
+        Functions.foldLeft(sum, 0L, new LinkedList(values)) == 20000100000L
+        Functions.foldRight(sum, 0L, new LinkedList(values)) == 20000100000L
+    }
+
+    def "Folds keep their order on any Iterable"() {
+        given:
+        def concat = { a, b -> a + " " + b } as BiFunction
+
+        expect:
+        Functions.foldRight(concat, "", iterable as Iterable) == right
+        Functions.foldLeft(concat, "", iterable as Iterable) == left
+
+        where:
+        iterable                                         | right       | left
+        new LinkedList(["a", "b", "c"])      | "a b c " | "c b a "
+        new LinkedHashSet(["a", "b", "c"])   | "a b c " | "c b a "
+        new ArrayDeque(["a", "b", "c"])      | "a b c " | "c b a "
+    }
+
     def "Head return first element of list"() {
 
         when:
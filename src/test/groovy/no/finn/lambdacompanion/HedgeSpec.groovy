@@ -0,0 +1,169 @@
+package no.finn.lambdacompanion
+
+import java.util.concurrent.Executors
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.SynchronousQueue
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+import spock.lang.Specification
+
+class HedgeSpec extends Specification {
+
+    def executor = Executors.newCachedThreadPool()
+
+    def cleanup() {
+        executor.shutdownNow()
+    }
+
+    def "a fast call fires no hedge"() {
+        given:
+        def hedge = Hedge.fixedDelay(executor, 1, TimeUnit.SECONDS, 3)
+        when:
+        def result = hedge.callWithStats({ -> "fast" } as ThrowingSupplier)
+        then:
+        result.getTry() == new Success<>("fast")
+        result.hedgesFired == 0
+        result.winnerIndex == 0
+    }
+
+    def "a slow call is hedged and the backup wins"() {
+        given:
+        def hedge = Hedge.fixedDelay(executor, 20, TimeUnit.MILLISECONDS, 2)
+        def attempts = new AtomicInteger()
+        def interrupted = new AtomicInteger()
+        def supplier = { ->
+            if (attempts.getAndIncrement() == 0) {
+                try {
+                    Thread.sleep(5000)
+                } catch (InterruptedException e) {
+                    interrupted.incrementAndGet()
+                    throw e
+                }
+                return "slow"
+            }
+            return "backup"
+        } as ThrowingSupplier
+        when:
+        def result = hedge.callWithStats(supplier)
+        Thread.sleep(100)
+        then:
+        result.getTry() == new Success<>("backup")
+        result.hedgesFired == 1
+        result.winnerIndex == 1
+        interrupted.get() == 1
+        hedge.hedgesWon == 1
+    }
+
+    def "attempts cancelled by a winning backup are not observed as failures"() {
+        given:
+        def observed = [].asSynchronized()
+        Try.setFailureObserver({ e -> observed << e } as FailureObserver)
+        def hedge = Hedge.fixedDelay(executor, 20, TimeUnit.MILLISECONDS, 2)
+        def attempts = new AtomicInteger()
+        def supplier = { ->
+            if (attempts.getAndIncrement() == 0) {
+                Thread.sleep(5000)
+                return "slow"
+            }
+            return "backup"
+        } as ThrowingSupplier
+        when:
+        def result = hedge.call(supplier)
+        Thread.sleep(100)
+        then:
+        result == new Success<>("backup")
+        observed.empty
+        cleanup:
+        Try.setFailureObserver(null)
+    }
+
+    def "the latency window keeps working past 2^31 recorded samples"() {
+        given:
+        def hedge = Hedge.adaptiveDelay(executor, 0.5, 1, TimeUnit.SECONDS, 2)
+        hedge.@samples.set((long) Integer.MAX_VALUE - 8)
+        when:
+        def results = (1..16).collect { hedge.call({ -> "ok" } as ThrowingSupplier) }
+        then:
+        results.every { it == new Success<>("ok") }
+        hedge.delayNanos < TimeUnit.SECONDS.toNanos(1)
+    }
+
+    def "a failure starts the next attempt and the first failure is returned when all fail"() {
+        given:
+        def hedge = Hedge.fixedDelay(executor, 1, TimeUnit.SECONDS, 3)
+        def attempts = new AtomicInteger()
+        when:
+        def result = hedge.callWithStats({ -> throw new IOException("attempt " + attempts.getAndIncrement()) } as ThrowingSupplier)
+        then:
+        result.winnerIndex == -1
+        result.hedgesFired == 2
+        result.getTry().recover({ v -> v }, { e -> e.message }) == "attempt 0"
+    }
+
+    def "an error thrown by an attempt is rethrown to the caller"() {
+        given:
+        def hedge = Hedge.fixedDelay(executor, 1, TimeUnit.SECONDS, 2)
+        when:
+        hedge.call({ -> throw new AssertionError("broken") } as ThrowingSupplier)
+        then:
+        def e = thrown(AssertionError)
+        e.message == "broken"
+    }
+
+    def "a rejected backup stops hedging and the running attempt is still awaited"() {
+        given:
+        def single = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new SynchronousQueue<Runnable>())
+        def hedge = Hedge.fixedDelay(single, 10, TimeUnit.MILLISECONDS, 3)
+        when:
+        def result = hedge.callWithStats({ -> Thread.sleep(100); "slow" } as ThrowingSupplier)
+        then:
+        result.getTry() == new Success<>("slow")
+        result.hedgesFired == 0
+        result.winnerIndex == 0
+        cleanup:
+        single.shutdownNow()
+    }
+
+    def "a rejected first attempt gives a failure"() {
+        given:
+        def closed = Executors.newSingleThreadExecutor()
+        closed.shutdown()
+        when:
+        def result = Hedge.fixedDelay(closed, 10, TimeUnit.MILLISECONDS, 2).callWithStats({ -> "never" } as ThrowingSupplier)
+        then:
+        result.getTry().recover({ v -> v }, { e -> e.class }) == RejectedExecutionException
+        result.winnerIndex == -1
+        result.hedgesFired == 0
+    }
+
+    def "attempts outrun by a backup still count in the adaptive delay"() {
+        given:
+        def hedge = Hedge.adaptiveDelay(executor, 0.9, 5, TimeUnit.MILLISECONDS, 2)
+        when:
+        32.times {
+            // the primary of every call is slow, and its backup answers right away
+            def attempts = new AtomicInteger()
+            hedge.call({ -> if (attempts.getAndIncrement() == 0) { Thread.sleep(1000) }; "done" } as ThrowingSupplier)
+        }
+        then:
+        hedge.hedgesWon == 32
+        hedge.delayNanos >= TimeUnit.MILLISECONDS.toNanos(4)
+    }
+
+    def "Try.hedged returns a plain Try"() {
+        expect:
+        Try.hedged({ -> 42 } as ThrowingSupplier, Hedge.fixedDelay(executor, 1, TimeUnit.SECONDS, 2)) == new Success<>(42)
+    }
+
+    def "the adaptive delay follows the latency of successful calls"() {
+        given:
+        def hedge = Hedge.adaptiveDelay(executor, 0.9, 10, TimeUnit.SECONDS, 2)
+        when:
+        128.times { hedge.call({ -> "fast" } as ThrowingSupplier) }
+        then:
+        hedge.delayNanos < TimeUnit.SECONDS.toNanos(1)
+        hedge.calls == 128
+    }
+}
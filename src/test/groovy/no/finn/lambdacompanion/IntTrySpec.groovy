@@ -0,0 +1,61 @@
+package no.finn.lambdacompanion
+
+import spock.lang.Specification
+
+class IntTrySpec extends Specification {
+
+    def "a successful chain keeps a primitive value"() {
+        when:
+        def actual = Try.of({ -> "21" } as ThrowingSupplier)
+                        .mapToInt({ String s -> Integer.parseInt(s) } as ThrowingToIntFunction)
+                        .map({ int i -> i * 2 } as ThrowingIntUnaryOperator)
+        then:
+        actual == IntTry.success(42)
+        actual.orElse(0) == 42
+        actual.toOptional() == OptionalInt.of(42)
+    }
+
+    def "a failing function yields a failure"() {
+        when:
+        def actual = IntTry.of({ String s -> Integer.parseInt(s) } as ThrowingToIntFunction, "blargh")
+                           .map({ int i -> i * 2 } as ThrowingIntUnaryOperator)
+        then:
+        actual.orElse(-1) == -1
+        actual.orElseGet({ -> -2 }) == -2
+        actual.recover({ i -> i }, { e -> e instanceof NumberFormatException ? 1 : 0 }) == 1
+        !actual.toOptional().isPresent()
+    }
+
+    def "a failure is carried over from Try"() {
+        given:
+        def exception = new IOException("floppy drive way too busy")
+        when:
+        Try.failure(exception).mapToInt({ s -> 1 } as ThrowingToIntFunction).orElseRethrow()
+        then:
+        def e = thrown(IOException)
+        e.is(exception)
+    }
+
+    def "flatMap and mapToObj chain primitive and object tries"() {
+        when:
+        def actual = IntTry.of({ -> 3 } as ThrowingIntSupplier)
+                           .flatMap({ int i -> i == 0 ? IntTry.failure(new ArithmeticException()) : IntTry.success(12.intdiv(i)) } as ThrowingIntFunction)
+                           .mapToObj({ int i -> "#" + i } as ThrowingIntFunction)
+        then:
+        actual == new Success<>("#4")
+    }
+
+    def "widens to long and double tries"() {
+        expect:
+        IntTry.success(3).asLongTry() == LongTry.success(3L)
+        IntTry.success(3).asDoubleTry() == DoubleTry.success(3d)
+        IntTry.success(3).toTry() == new Success<>(3)
+    }
+
+    def "orElseThrow maps the exception of a failure"() {
+        when:
+        IntTry.failure(new IllegalStateException()).orElseThrow({ e -> new IOException(e) })
+        then:
+        thrown(IOException)
+    }
+}
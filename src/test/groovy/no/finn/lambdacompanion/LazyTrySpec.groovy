@@ -0,0 +1,149 @@
+package no.finn.lambdacompanion
+
+import spock.lang.Specification
+
+class LazyTrySpec extends Specification {
+
+    def "nothing runs until a terminal operation is called"() {
+        given:
+        def calls = 0
+        when:
+        def lazy = Try.defer({ -> calls++; "3" } as ThrowingSupplier)
+                      .map({ s -> calls++; Integer.parseInt(s) })
+                      .peek({ i -> calls++ })
+        then:
+        calls == 0
+        when:
+        def actual = lazy.orElse(0)
+        then:
+        actual == 3
+        calls == 3
+    }
+
+    def "a chain of steps yields the same value as an eager Try"() {
+        when:
+        def actual = Try.defer({ -> "3" } as ThrowingSupplier)
+                        .map({ String s -> Integer.parseInt(s) })
+                        .flatMap({ i -> Try.success(i * 2) })
+                        .filter({ i -> i > 5 })
+                        .map({ i -> i + 1 })
+                        .toTry()
+        then:
+        actual == new Success<>(7)
+    }
+
+    def "the first failing step stops the chain"() {
+        given:
+        def after = 0
+        when:
+        def actual = Try.defer({ -> "blargh" } as ThrowingSupplier)
+                        .map({ String s -> Integer.parseInt(s) })
+                        .peek({ i -> after++ })
+                        .recover({ i -> "ok" }, { e -> e.class.simpleName })
+        then:
+        actual == "NumberFormatException"
+        after == 0
+    }
+
+    def "a failure returned by flatMap stops the chain"() {
+        given:
+        def failure = new Failure<>(new IOException("floppy drive way too busy"))
+        when:
+        def actual = Try.defer({ -> 1 } as ThrowingSupplier)
+                        .flatMap({ i -> failure })
+                        .map({ i -> i + 1 })
+                        .toTry()
+        then:
+        actual.is(failure)
+    }
+
+    def "a predicate that does not hold yields a failure"() {
+        when:
+        Try.defer({ -> "" } as ThrowingSupplier).filter({ s -> !s.isEmpty() }).orElseRethrow()
+        then:
+        thrown(NoSuchElementException)
+    }
+
+    def "terminal operations run the chain again unless memoized"() {
+        given:
+        def calls = 0
+        def plain = Try.defer({ -> calls++ } as ThrowingSupplier)
+        def memoized = Try.defer({ -> calls++ } as ThrowingSupplier).memoize()
+        when:
+        plain.toOptional()
+        plain.toEither()
+        then:
+        calls == 2
+        when:
+        memoized.toOptional()
+        memoized.toEither()
+        memoized.orElseGet({ -> 0 })
+        then:
+        calls == 3
+    }
+
+    def "chains longer than the initial capacity keep every step"() {
+        given:
+        def lazy = Try.defer({ -> 0 } as ThrowingSupplier)
+        when:
+        (1..100).each { lazy = lazy.map({ i -> i + 1 }) }
+        then:
+        lazy.orElse(-1) == 100
+    }
+
+    def "chains branched from the same base do not see each other's steps"() {
+        given:
+        def base = Try.defer({ -> 2 } as ThrowingSupplier).map({ i -> i * 10 })
+        when:
+        def plusOne = base.map({ i -> i + 1 })
+        def asText = base.map({ i -> "value " + i })
+        def plusOneTwice = plusOne.map({ i -> i + 1 })
+        def plusTwo = plusOne.map({ i -> i + 2 })
+        then:
+        base.orElse(-1) == 20
+        plusOne.orElse(-1) == 21
+        asText.orElse("none") == "value 20"
+        plusOneTwice.orElse(-1) == 22
+        plusTwo.orElse(-1) == 23
+    }
+
+    def "memoizing a chain leaves the original chain unmemoized"() {
+        given:
+        def calls = 0
+        def plain = Try.defer({ -> calls++ } as ThrowingSupplier)
+        def memoized = plain.memoize()
+        when:
+        2.times { memoized.toTry() }
+        2.times { plain.toTry() }
+        then:
+        calls == 3
+    }
+
+    def "steps added after memoize start from the memoized result"() {
+        given:
+        def calls = 0
+        def mapped = 0
+        def memoized = Try.defer({ -> calls++; 20 } as ThrowingSupplier).memoize()
+        def plusOne = memoized.map({ i -> mapped++; i + 1 })
+        when:
+        def results = [plusOne.toTry(), plusOne.toTry(), memoized.map({ i -> i * 2 }).toTry(), memoized.toTry()]
+        then:
+        results == [new Success<>(21), new Success<>(21), new Success<>(40), new Success<>(20)]
+        calls == 1
+        mapped == 1
+    }
+
+    def "steps added after memoize keep its failure"() {
+        given:
+        def calls = 0
+        def exception = new IOException("down")
+        def memoized = Try.defer({ -> calls++; throw exception } as ThrowingSupplier).memoize()
+        when:
+        def first = memoized.map({ i -> i + 1 }).toTry()
+        def second = memoized.filter({ i -> true }).toTry()
+        then:
+        first.exception.is(exception)
+        second.is(memoized.toTry())
+        calls == 1
+    }
+}
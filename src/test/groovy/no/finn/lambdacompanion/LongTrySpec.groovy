@@ -0,0 +1,24 @@
+package no.finn.lambdacompanion
+
+import spock.lang.Specification
+
+class LongTrySpec extends Specification {
+
+    def "a successful chain keeps a primitive value"() {
+        when:
+        def actual = LongTry.of({ String s -> Long.parseLong(s) } as ThrowingToLongFunction, "21")
+                            .map({ long l -> l * 2 } as ThrowingLongUnaryOperator)
+        then:
+        actual == LongTry.success(42L)
+        actual.recover({ l -> l + 1 }, { e -> 0L }) == 43L
+        actual.asDoubleTry() == DoubleTry.success(42d)
+    }
+
+    def "a failing function yields a failure"() {
+        when:
+        def actual = Try.success("blargh").mapToLong({ String s -> Long.parseLong(s) } as ThrowingToLongFunction)
+        then:
+        actual.orElse(-1L) == -1L
+        actual.toTry() instanceof Failure
+    }
+}
@@ -0,0 +1,171 @@
+package no.finn.lambdacompanion
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+import spock.lang.Specification
+
+class MemoizedSpec extends Specification {
+
+    def "results are cached by argument"() {
+        given:
+        def calls = new AtomicInteger()
+        def memoized = Memoized.of({ Integer i -> calls.incrementAndGet(); i * 2 } as ThrowingFunction, 10)
+        when:
+        def results = [1, 2, 1, 1, 2].collect { memoized.apply(it) }
+        then:
+        results == [new Success<>(2), new Success<>(4), new Success<>(2), new Success<>(2), new Success<>(4)]
+        calls.get() == 2
+        memoized.hits == 3
+        memoized.misses == 2
+    }
+
+    def "failures are cached too"() {
+        given:
+        def calls = new AtomicInteger()
+        def memoized = Memoized.of({ Integer i -> calls.incrementAndGet(); throw new IOException("down") } as ThrowingFunction, 10)
+        when:
+        def first = memoized.apply(1)
+        def second = memoized.apply(1)
+        then:
+        first instanceof Failure
+        second.is(first)
+        calls.get() == 1
+    }
+
+    def "the least recently used entry is evicted"() {
+        given:
+        def calls = new AtomicInteger()
+        def memoized = Memoized.of({ Integer i -> calls.incrementAndGet(); i } as ThrowingFunction, 2)
+        when:
+        memoized.apply(1)
+        memoized.apply(2)
+        memoized.apply(1)
+        memoized.apply(3)
+        memoized.apply(1)
+        memoized.apply(2)
+        then:
+        calls.get() == 4
+        memoized.evictions == 2
+        memoized.size() == 2
+    }
+
+    def "failures expire sooner than successes"() {
+        given:
+        def calls = new AtomicInteger()
+        def memoized = Memoized.of({ Integer i ->
+            calls.incrementAndGet()
+            if (i < 0) {
+                throw new IOException("negative")
+            }
+            i
+        } as ThrowingFunction, 10, 10_000, 1, TimeUnit.MILLISECONDS)
+        when:
+        memoized.apply(1)
+        memoized.apply(-1)
+        Thread.sleep(50)
+        memoized.apply(1)
+        memoized.apply(-1)
+        then:
+        calls.get() == 3
+    }
+
+    def "entries expire after their time to live"() {
+        given:
+        def calls = new AtomicInteger()
+        def memoized = Memoized.of({ Integer i -> calls.incrementAndGet(); i } as ThrowingFunction, 10, 20, 20, TimeUnit.MILLISECONDS)
+        when:
+        memoized.apply(1)
+        memoized.apply(1)
+        Thread.sleep(50)
+        memoized.cleanUp()
+        then:
+        calls.get() == 1
+        memoized.size() == 0
+        memoized.apply(1) == new Success<>(1)
+        calls.get() == 2
+    }
+
+    def "concurrent misses on the same key load once"() {
+        given:
+        def executor = Executors.newFixedThreadPool(8)
+        def calls = new AtomicInteger()
+        def start = new CountDownLatch(1)
+        def memoized = Memoized.of({ Integer i -> calls.incrementAndGet(); Thread.sleep(50); i } as ThrowingFunction, 10)
+        when:
+        def futures = (1..8).collect { executor.submit({ start.await(); memoized.apply(7) } as java.util.concurrent.Callable) }
+        start.countDown()
+        def results = futures.collect { it.get() }
+        then:
+        results.every { it == new Success<>(7) }
+        calls.get() == 1
+        memoized.misses == 1
+        memoized.hits == 7
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "concurrent hits and misses keep the cache bounded"() {
+        given:
+        def executor = Executors.newFixedThreadPool(4)
+        def memoized = Memoized.of({ Integer i -> i } as ThrowingFunction, 50)
+        when:
+        def futures = (1..4).collect { t ->
+            executor.submit({
+                (1..5000).each { n ->
+                    def key = n % 3 == 0 ? n % 10 : (n * 31 + t) % 200
+                    assert memoized.apply(key) == new Success<>(key)
+                    if (n % 500 == 0) {
+                        memoized.invalidate(key)
+                    }
+                }
+            } as java.util.concurrent.Callable)
+        }
+        futures.each { it.get() }
+        then:
+        memoized.size() <= 50
+        memoized.hits + memoized.misses == 20000
+        memoized.evictions > 0
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "null keys are rejected"() {
+        given:
+        def memoized = Memoized.of({ Integer i -> i } as ThrowingFunction, 10)
+        when:
+        memoized.apply(null)
+        then:
+        thrown(NullPointerException)
+    }
+
+    def "a two argument function is cached by pair of arguments"() {
+        given:
+        def calls = new AtomicInteger()
+        def memoized = Memoized.of({ Integer a, Integer b -> calls.incrementAndGet(); a + b } as ThrowingBiFunction, 10)
+        when:
+        def results = [memoized.apply(1, 2), memoized.apply(1, 2), memoized.apply(2, 1)]
+        then:
+        results == [new Success<>(3), new Success<>(3), new Success<>(3)]
+        calls.get() == 2
+        memoized.cache().hits == 1
+    }
+
+    def "invalidation removes entries"() {
+        given:
+        def calls = new AtomicInteger()
+        def memoized = Memoized.of({ Integer i -> calls.incrementAndGet(); i } as ThrowingFunction, 10)
+        when:
+        memoized.apply(1)
+        memoized.apply(2)
+        memoized.invalidate(1)
+        memoized.apply(1)
+        memoized.apply(2)
+        memoized.invalidateAll()
+        then:
+        calls.get() == 3
+        memoized.size() == 0
+    }
+}
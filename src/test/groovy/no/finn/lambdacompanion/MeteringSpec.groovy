@@ -0,0 +1,198 @@
+package no.finn.lambdacompanion
+
+import java.lang.management.ManagementFactory
+import java.util.function.Function
+import java.util.function.Predicate
+import javax.management.ObjectName
+
+import spock.lang.Specification
+
+class MeteringSpec extends Specification {
+
+    def cleanup() {
+        Metering.setSink(null)
+        Metering.setEnabled(true)
+    }
+
+    def "metered stages count the elements in and out of each stage"() {
+        given:
+        def source = Metering.stage("metering-spec-source")
+        def even = Metering.stage("metering-spec-even")
+        source.reset()
+        even.reset()
+
+        when:
+        def result = ExtendedStream.of((1..1000).toList().stream())
+                                   .metered("metering-spec-source")
+                                   .filter({ i -> i % 2 == 0 } as Predicate)
+                                   .metered("metering-spec-even")
+                                   .toList()
+
+        then:
+        result.size() == 500
+        source.elementsOut == 1000
+        even.elementsIn == 1000
+        even.elementsOut == 500
+        even.samples > 0
+        even.averageNanos > 0
+    }
+
+    def "parallel metered streams count every element"() {
+        given:
+        def meter = Metering.stage("metering-spec-parallel")
+        meter.reset()
+
+        when:
+        def count = ExtendedStream.of((1..100000).toList().parallelStream())
+                                  .map({ i -> i * 2 } as Function)
+                                  .metered("metering-spec-parallel")
+                                  .count()
+
+        then:
+        count == 100000
+        meter.elementsOut == 100000
+    }
+
+    def "exceptions are counted once, by the closest metered point"() {
+        given:
+        def first = Metering.stage("metering-spec-errors-first")
+        def second = Metering.stage("metering-spec-errors-second")
+        first.reset()
+        second.reset()
+
+        when:
+        ExtendedStream.of((1..10).toList().stream())
+                      .metered("metering-spec-errors-first")
+                      .map({ i -> if (i == 5) { throw new IllegalStateException("boom") }; i } as Function)
+                      .metered("metering-spec-errors-second")
+                      .toList()
+
+        then:
+        thrown(IllegalStateException)
+        first.errors == 0
+        second.errors == 1
+        second.elementsOut == 4
+    }
+
+    def "a shared exception instance is counted on every run"() {
+        given:
+        def meter = Metering.stage("metering-spec-shared-error")
+        meter.reset()
+        def shared = new IllegalStateException("shared")
+
+        when:
+        3.times {
+            try {
+                ExtendedStream.of((1..10).toList().stream())
+                              .map({ i -> if (i == 5) { throw shared }; i } as Function)
+                              .metered("metering-spec-shared-error")
+                              .toList()
+            } catch (IllegalStateException ignored) {
+            }
+        }
+
+        then:
+        meter.errors == 3
+    }
+
+    def "pipelines reusing a stage name keep their own counts"() {
+        given:
+        def published = []
+        Metering.setSink({ stages -> published << stages } as MetricsSink)
+        def total = Metering.stage("metering-spec-reused")
+        total.reset()
+        def first = ExtendedStream.of((1..100).toList().stream()).metered("metering-spec-reused-a").metered("metering-spec-reused")
+        def second = ExtendedStream.of((1..50).toList().stream()).metered("metering-spec-reused-b").metered("metering-spec-reused")
+
+        when:
+        second.toList()
+        first.toList()
+
+        then:
+        published.collect { it.last().elementsIn } == [50L, 100L]
+        published.collect { it.last().elementsOut } == [50L, 100L]
+        total.elementsIn == 150
+        total.elementsOut == 150
+    }
+
+    def "short-circuiting operations count the elements pulled"() {
+        given:
+        def meter = Metering.stage("metering-spec-short-circuit")
+        meter.reset()
+
+        when:
+        def first = ExtendedStream.of((1..1000).toList().stream()).metered("metering-spec-short-circuit").findFirst()
+
+        then:
+        first == Optional.of(1)
+        meter.elementsOut == 1
+    }
+
+    def "streams traversed with their iterator are published when closed"() {
+        given:
+        def meter = Metering.stage("metering-spec-iterator")
+        meter.reset()
+        def stream = ExtendedStream.of((1..10).toList().stream()).metered("metering-spec-iterator")
+
+        when:
+        def iterated = stream.iterator().collect()
+        stream.close()
+        stream.close()
+
+        then:
+        iterated == (1..10).toList()
+        meter.elementsOut == 10
+    }
+
+    def "the sink receives the meters of the pipeline after each terminal operation"() {
+        given:
+        def published = []
+        Metering.setSink({ stages -> published << stages*.name } as MetricsSink)
+
+        when:
+        ExtendedStream.of([1, 2, 3].stream()).metered("metering-spec-sink-a").map({ i -> i } as Function).metered("metering-spec-sink-b").toList()
+
+        then:
+        published == [["metering-spec-sink-a", "metering-spec-sink-b"]]
+    }
+
+    def "a throwing sink neither replaces the result nor hides the exception of the pipeline"() {
+        given:
+        Metering.setSink({ stages -> throw new IllegalStateException("sink down") } as MetricsSink)
+
+        when:
+        def result = ExtendedStream.of([1, 2, 3].stream()).metered("metering-spec-throwing-sink").toList()
+
+        then:
+        result == [1, 2, 3]
+
+        when:
+        ExtendedStream.of([1, 2, 3].stream())
+                      .metered("metering-spec-throwing-sink")
+                      .map({ i -> throw new IllegalArgumentException("pipeline") } as Function)
+                      .toList()
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message == "pipeline"
+    }
+
+    def "stage meters are exposed over JMX"() {
+        given:
+        ExtendedStream.of([1, 2, 3].stream()).metered("metering-spec-jmx").toList()
+        def name = new ObjectName("no.finn.lambdacompanion:type=StageMeter,name=" + ObjectName.quote("metering-spec-jmx"))
+
+        expect:
+        ManagementFactory.platformMBeanServer.getAttribute(name, "ElementsOut") >= 3L
+    }
+
+    def "disabled metering leaves the stream untouched"() {
+        given:
+        Metering.setEnabled(false)
+        def stream = ExtendedStream.of([1, 2, 3].stream())
+
+        expect:
+        stream.metered("metering-spec-disabled").is(stream)
+        !Metering.stages()*.name.contains("metering-spec-disabled")
+    }
+}
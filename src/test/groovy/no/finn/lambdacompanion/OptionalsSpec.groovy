@@ -1,5 +1,11 @@
 package no.finn.lambdacompanion
 
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
 import java.util.function.Supplier
 import java.util.stream.Collectors
 
@@ -34,6 +40,102 @@ class OptionalsSpec extends Specification {
         actual == Optional.of("second")
     }
 
+    def "concurrent firstOf keeps priority order"() {
+        given:
+        def executor = Executors.newCachedThreadPool()
+        def slowEmpty = { -> Thread.sleep(100); Optional.empty() } as Supplier
+        def second = { -> Optional.of("second") } as Supplier
+        def third = { -> Optional.of("third") } as Supplier
+        when:
+        def actual = Optionals.firstOf(executor, slowEmpty, second, third)
+        then:
+        actual == Optional.of("second")
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "concurrent firstOf runs the suppliers in parallel and cancels the ones no longer needed"() {
+        given:
+        def executor = Executors.newCachedThreadPool()
+        def interrupted = new CountDownLatch(1)
+        def first = { -> Thread.sleep(100); Optional.of("first") } as Supplier
+        def second = { -> Thread.sleep(100); Optional.empty() } as Supplier
+        def stuck = { ->
+            try {
+                Thread.sleep(10000)
+            } catch (InterruptedException e) {
+                interrupted.countDown()
+            }
+            Optional.of("stuck")
+        } as Supplier
+        when:
+        def start = System.nanoTime()
+        def actual = Optionals.firstOf(executor, first, second, stuck)
+        def elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+        then:
+        actual == Optional.of("first")
+        elapsed < 5000
+        interrupted.await(5, TimeUnit.SECONDS)
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "concurrent firstOf gives up on timeout"() {
+        given:
+        def executor = Executors.newCachedThreadPool()
+        def slow = { -> Thread.sleep(10000); Optional.of("slow") } as Supplier
+        def fast = { -> Optional.of("fast") } as Supplier
+        expect:
+        Optionals.firstOf(executor, 50, TimeUnit.MILLISECONDS, slow, fast) == Optional.empty()
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "concurrent firstOf rethrows an exception reached in priority order"() {
+        given:
+        def executor = Executors.newCachedThreadPool()
+        def empty = { -> Optional.empty() } as Supplier
+        def failing = { -> throw new IllegalStateException("boom") } as Supplier
+        when:
+        Optionals.firstOf(executor, empty, failing)
+        then:
+        thrown(IllegalStateException)
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "concurrent firstOf cancels the started suppliers when the executor rejects one"() {
+        given:
+        def pool = Executors.newCachedThreadPool()
+        def submitted = new AtomicInteger()
+        def running = new CountDownLatch(1)
+        def executor = { Runnable task ->
+            if (submitted.getAndIncrement() == 1) {
+                running.await(5, TimeUnit.SECONDS)
+                throw new RejectedExecutionException("saturated")
+            }
+            pool.execute(task)
+        } as Executor
+        def interrupted = new CountDownLatch(1)
+        def started = { ->
+            running.countDown()
+            try {
+                Thread.sleep(10000)
+            } catch (InterruptedException e) {
+                interrupted.countDown()
+            }
+            Optional.of("started")
+        } as Supplier
+        def rejected = { -> Optional.of("rejected") } as Supplier
+        when:
+        Optionals.firstOf(executor, started, rejected)
+        then:
+        thrown(RejectedExecutionException)
+        interrupted.await(5, TimeUnit.SECONDS)
+        cleanup:
+        pool.shutdownNow()
+    }
+
     @Unroll("string '#string' should result in #expected")
     def "test ofBlankable"() {
         expect:
@@ -0,0 +1,71 @@
+package no.finn.lambdacompanion
+
+import java.util.stream.Collectors
+
+import spock.lang.Specification
+
+class PairBufferSpec extends Specification {
+
+    def "pairs are accessed by index in insertion order"() {
+        given:
+        def buffer = new PairBuffer(1)
+        when:
+        (0..99).each { buffer.add(it, it * 10L) }
+        then:
+        buffer.size() == 100
+        buffer.getLeft(42) == 42L
+        buffer.getRight(42) == 420L
+        buffer.get(99) == new LongPair(99L, 990L)
+    }
+
+    def "access out of range fails"() {
+        when:
+        new PairBuffer().add(1L, 2L).getLeft(1)
+        then:
+        thrown(IndexOutOfBoundsException)
+    }
+
+    def "sortByLeft keeps the right value with its left value"() {
+        given:
+        def random = new Random(42)
+        def lefts = (1..10000).collect { random.nextInt(500) as long }
+        def buffer = new PairBuffer()
+        lefts.each { buffer.add(it, -it) }
+        when:
+        buffer.sortByLeft()
+        then:
+        buffer.lefts().boxed().collect(Collectors.toList()) == lefts.sort(false)
+        (0..<buffer.size()).every { buffer.getRight(it) == -buffer.getLeft(it) }
+    }
+
+    def "forEach walks the pairs in order"() {
+        given:
+        def buffer = new PairBuffer().add(1L, 2L).add(new LongPair(3L, 4L))
+        def seen = []
+        when:
+        buffer.forEach({ long l, long r -> seen << [l, r] } as PairBuffer.LongPairConsumer)
+        then:
+        seen == [[1L, 2L], [3L, 4L]]
+        buffer.stream().collect(Collectors.toList()) == [new LongPair(1L, 2L), new LongPair(3L, 4L)]
+    }
+
+    def "a parallel stream of pairs collects into a buffer in encounter order"() {
+        when:
+        def buffer = (1..10000).parallelStream().map({ i -> new Pair<>(i as long, i * 2L) }).collect(Pair.toPairBuffer())
+        then:
+        buffer.size() == 10000
+        buffer.lefts().sum() == 50005000L
+        (0..<buffer.size()).every { buffer.getLeft(it) == it + 1 }
+    }
+
+    def "primitive pairs follow the Pair contract"() {
+        expect:
+        new IntPair(1, 2) == new IntPair(1, 2)
+        new IntPair(1, 2).hashCode() == new Pair(1, 2).hashCode()
+        new LongPair(1L, 2L).hashCode() == new Pair(1L, 2L).hashCode()
+        new LongObjPair(1L, "two").hashCode() == new Pair(1L, "two").hashCode()
+        new LongObjPair(1L, null) == new LongObjPair(1L, null)
+        new LongPair(1L, 2L).toMapEntry() == new Pair(1L, 2L).toMapEntry()
+        new IntPair(1, 2) != new LongPair(1L, 2L)
+    }
+}
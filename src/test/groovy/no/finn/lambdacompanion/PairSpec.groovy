@@ -1,5 +1,6 @@
 package no.finn.lambdacompanion
 
+import java.util.stream.Collectors
 import java.util.stream.Stream
 
 import spock.lang.Specification
@@ -31,5 +32,44 @@ class PairSpec extends Specification {
         expect:
         new Pair("left", "right").equals(new Pair("left", "right"))
     }
-    
-}
\ No newline at end of file
+
+    def "of splits lefts and rights of a list, an iterable and a stream"() {
+        given:
+        def eithers = [Either.left("a"), Either.right(1), Either.left(null), Either.right(2)]
+        def expected = new Pair(["a", null], [1, 2])
+        expect:
+        Pair.of(eithers) == expected
+        Pair.of(new LinkedHashSet(eithers) as Iterable) == expected
+        Pair.of(eithers.stream()) == expected
+    }
+
+    def "partitioning keeps encounter order on parallel streams"() {
+        given:
+        def eithers = (1..10000).collect { it % 3 == 0 ? Either.left(it) : Either.right(it) }
+        when:
+        def pair = eithers.parallelStream().collect(Pair.partitioning(10000))
+        then:
+        pair.getLeft() == (1..10000).findAll { it % 3 == 0 }
+        pair.getRight() == (1..10000).findAll { it % 3 != 0 }
+    }
+
+    def "a presizing partitioning collector can be reused, sequentially or in parallel"() {
+        given:
+        def eithers = (1..1000).collect { it % 2 == 0 ? Either.left(it) : Either.right(it) }
+        def collector = Pair.partitioning(1000)
+        when:
+        def results = [eithers.parallelStream(), eithers.stream(), eithers.parallelStream()].collect { it.collect(collector) }
+        then:
+        results.every { it.getLeft() == (1..1000).findAll { it % 2 == 0 } && it.getRight() == (1..1000).findAll { it % 2 != 0 } }
+    }
+
+    def "partitioning hands each side to its own downstream collector"() {
+        given:
+        def eithers = [Either.left("a"), Either.right(1), Either.left("b"), Either.right(1)]
+        when:
+        def pair = eithers.stream().collect(Pair.partitioning(Collectors.counting(), Collectors.toSet()))
+        then:
+        pair == new Pair(2L, [1] as Set)
+    }
+
+}
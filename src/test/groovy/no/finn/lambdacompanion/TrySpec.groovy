@@ -251,4 +251,104 @@ class TrySpec extends Specification {
         result instanceof Success
         result.orElseRethrow() == null
     }
+
+    def "should sequence a large list of successes without overflowing the stack" () {
+        given:
+        def tries = (1..100000).collect { new Success<>(it) }
+        when:
+        def actual = Try.sequence(tries).orElseRethrow()
+        then:
+        actual.size() == 100000
+        actual.get(99999) == 100000
+    }
+
+    def "should sequence a success holding null" () {
+        given:
+        def tries = Arrays.asList(new Success<>(null), new Success<>("dude"))
+        when:
+        def actual = Try.sequence(tries).orElseRethrow()
+        then:
+        actual == [null, "dude"]
+    }
+
+    def "should traverse a list of values to a try of list" () {
+        when:
+        def actual = Try.traverse(["1", "2", "3"], { s -> Integer.valueOf(s) } as ThrowingFunction).orElseRethrow()
+        then:
+        actual == [1, 2, 3]
+    }
+
+    def "should stop traversing at the first failure" () {
+        given:
+        def calls = 0
+        when:
+        Try.traverse(["1", "x", "3"], { s -> calls++; Integer.valueOf(s) } as ThrowingFunction).orElseRethrow()
+        then:
+        thrown(NumberFormatException)
+        calls == 2
+    }
+
+    def "should collect a stream of successes to a try of list" () {
+        when:
+        def actual = (1..1000).parallelStream().map({ i -> new Success<>(i) }).collect(Try.toSequence(1000))
+        then:
+        actual.orElseRethrow() == (1..1000).toList()
+    }
+
+    def "a presizing sequence collector can be reused, sequentially or in parallel" () {
+        given:
+        def tries = (1..1000).collect { new Success<>(it) }
+        def collector = Try.toSequence(1000)
+        when:
+        def results = [tries.parallelStream(), tries.stream(), tries.parallelStream()].collect { it.collect(collector) }
+        then:
+        results.every { it.orElseRethrow() == (1..1000).toList() }
+    }
+
+    def "should collect a stream containing failures to the first failure in encounter order" () {
+        given:
+        def first = new Failure<>(new IllegalStateException("first"))
+        def second = new Failure<>(new IllegalStateException("second"))
+        def tries = (1..1000).collect { it == 300 ? first : it == 700 ? second : new Success<>(it) }
+        when:
+        def actual = tries.parallelStream().collect(Try.toSequence())
+        then:
+        actual == first
+    }
+
+    def "a stackless failure holds a StacklessException without stack trace" () {
+        when:
+        def failure = Try.stacklessFailure("not a number")
+        def exception = failure.recover({ s -> null }, { e -> e })
+        then:
+        exception instanceof StacklessException
+        exception.message == "not a number"
+        exception.stackTrace.length == 0
+        failure.getException().is(exception)
+    }
+
+    def "a preallocated StacklessException thrown from a function is rethrown as is" () {
+        given:
+        def notANumber = new StacklessException("not a number")
+        def first = Try.of({ s -> throw notANumber }, "x")
+        def second = Try.of({ s -> throw notANumber }, "y")
+        when:
+        second.orElseRethrow()
+        then:
+        def e = thrown(StacklessException)
+        e.is(notANumber)
+        first == second
+    }
+
+    def "should partition a stream of tries into exceptions and values in one pass" () {
+        given:
+        def boom = new IOException("boom")
+        def tries = (1..1000).collect { i -> i % 100 == 0 ? new Failure<Integer>(boom) : new Success<>(i) }
+        when:
+        def actual = tries.parallelStream().collect(Try.partitioning())
+        then:
+        actual.left.size() == 10
+        actual.left.every { it.is(boom) }
+        actual.right == (1..1000).findAll { it % 100 != 0 }
+    }
 }